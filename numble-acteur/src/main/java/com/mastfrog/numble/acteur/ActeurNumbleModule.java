@@ -25,9 +25,18 @@ package com.mastfrog.numble.acteur;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provider;
+import com.mastfrog.acteur.ContentConverter;
 import com.mastfrog.acteur.HttpEvent;
 import com.mastfrog.parameters.KeysValues;
+import com.mastfrog.settings.Settings;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
 /**
  *
@@ -35,25 +44,85 @@ import javax.inject.Inject;
  */
 public class ActeurNumbleModule extends AbstractModule {
 
+    /**
+     * If true, request bodies for generated parameter classes are
+     * deserialized once and the resulting instance validated, instead of
+     * validating the raw body and deserializing it afterwards.
+     */
+    public static final String SETTINGS_KEY_SINGLE_PARSE_BODIES = "numble.single.parse.bodies";
+    private final boolean singleParse;
+
+    /**
+     * Create a module which leaves request body handling to acteur's own
+     * ContentConverter.
+     */
+    public ActeurNumbleModule() {
+        singleParse = false;
+    }
+
+    /**
+     * Create a module which replaces acteur's ContentConverter only if
+     * <code>numble.single.parse.bodies</code> is set.
+     *
+     * @param settings The settings
+     */
+    public ActeurNumbleModule(Settings settings) {
+        singleParse = settings.getBoolean(SETTINGS_KEY_SINGLE_PARSE_BODIES, false);
+    }
+
     @Override
     protected void configure() {
+        if (singleParse) {
+            bind(ContentConverter.class).to(NumbleContentConverter.class);
+        }
         bind(ParamsPlugin.class).asEagerSingleton();
         bind(NumbleContentValidationPlugin.class).asEagerSingleton();
         bind(KeysValues.class).toProvider(KeysValuesProvider.class);
     }
 
-    private static final class KeysValuesProvider implements Provider<KeysValues> {
+    /**
+     * Parses the query string lazily, once per request however many times
+     * it is injected, keeping the result in an attribute of the channel
+     * which is replaced when the next request on the connection asks.
+     */
+    @Singleton
+    static final class KeysValuesProvider implements Provider<KeysValues> {
 
+        private static final AttributeKey<ParsedQuery> QUERY
+                = AttributeKey.valueOf(KeysValuesProvider.class, "query");
         private final Provider<HttpEvent> evt;
 
         @Inject
-        public KeysValuesProvider(Provider<HttpEvent> evt) {
+        KeysValuesProvider(Provider<HttpEvent> evt) {
             this.evt = evt;
         }
 
         @Override
         public KeysValues get() {
-            return KeysValues.ofMap(evt.get().urlParametersAsMap());
+            HttpEvent event = evt.get();
+            HttpRequest request = event.request();
+            Channel channel = event.channel();
+            if (channel == null) {
+                return new QueryStringKeysValues(request.uri());
+            }
+            Attribute<ParsedQuery> attr = channel.attr(QUERY);
+            ParsedQuery parsed = attr.get();
+            if (parsed == null || parsed.request.get() != request) {
+                parsed = new ParsedQuery(request, new QueryStringKeysValues(request.uri()));
+                attr.set(parsed);
+            }
+            return parsed.params;
+        }
+    }
+
+    private static final class ParsedQuery {
+
+        private final Reference<HttpRequest> request;
+        private final KeysValues params;
+
+        ParsedQuery(HttpRequest request, KeysValues params) {
+            this.request = new WeakReference<>(request);
+            this.params = params;
         }
     }
 }
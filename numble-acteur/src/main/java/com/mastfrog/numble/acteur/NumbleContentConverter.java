@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.acteur;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.mastfrog.acteur.ContentConverter;
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.mime.MimeType;
+import com.mastfrog.parameters.gen.Origin;
+import com.mastfrog.parameters.gen.Validatable;
+import com.mastfrog.parameters.validation.ValidationMetrics;
+import com.mastfrog.settings.Settings;
+import com.mastfrog.util.codec.Codec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.netbeans.validation.api.Problems;
+
+import static com.mastfrog.numble.acteur.ActeurNumbleModule.SETTINGS_KEY_SINGLE_PARSE_BODIES;
+
+/**
+ * ContentConverter which, if the setting
+ * <code>numble.single.parse.bodies</code> is true, deserializes request bodies
+ * for generated, validatable parameter classes straight into the target type
+ * and validates the resulting instance, so the body is parsed once rather
+ * than once for validation and again for injection. The result is what
+ * &#064;InjectRequestBodyAs places in the request scope.
+ * <p>
+ * In this mode, rejecting unknown properties is up to the ObjectMapper's
+ * <code>FAIL_ON_UNKNOWN_PROPERTIES</code> setting, and values Jackson cannot
+ * convert are reported as problems with Jackson's message.
+ *
+ * @author Tim Boudreau
+ */
+@Singleton
+final class NumbleContentConverter extends ContentConverter {
+
+    private final boolean singleParse;
+    private final Injector injector;
+    private final ValidationMetrics metrics;
+
+    @Inject
+    NumbleContentConverter(Codec codec, Provider<Charset> charset, Dependencies deps, Settings settings,
+            Injector injector, ValidationMetrics metrics) {
+        super(codec, charset, deps);
+        this.singleParse = settings.getBoolean(SETTINGS_KEY_SINGLE_PARSE_BODIES, false);
+        this.injector = injector;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected <T> T readObject(ByteBuf buf, MimeType mimeType, Class<T> type) throws Exception {
+        if (!singleParse || !Validatable.class.isAssignableFrom(type) || type.getAnnotation(Origin.class) == null) {
+            return super.readObject(buf, mimeType, type);
+        }
+        boolean measured = metrics.isEnabled();
+        Object span = measured ? metrics.binding(type.getAnnotation(Origin.class).value()) : null;
+        long start = measured ? System.nanoTime() : 0;
+        // A body Jackson cannot bind is rejected through the same Problems
+        // as one which binds but fails validation
+        Problems problems = new Problems();
+        T result = null;
+        try (InputStream in = new ByteBufInputStream(buf)) {
+            result = codec.readValue(in, type);
+        } catch (JsonMappingException ex) {
+            problems.append(ex.getOriginalMessage());
+        }
+        if (result != null) {
+            problems = ((Validatable) result).validate(injector, problems);
+        } else if (!problems.hasFatal()) {
+            problems.append("Request body is not a JSON object");
+        }
+        if (measured) {
+            metrics.bound(span, type.getAnnotation(Origin.class).value(), !problems.hasFatal(), System.nanoTime() - start);
+        }
+        problems.throwIfFatalPresent();
+        return result;
+    }
+}
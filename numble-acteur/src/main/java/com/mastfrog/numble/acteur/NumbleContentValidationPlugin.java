@@ -23,15 +23,21 @@
  */
 package com.mastfrog.numble.acteur;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mastfrog.acteur.ContentConverter;
 import com.mastfrog.mime.MimeType;
 import com.mastfrog.parameters.KeysValues;
 import com.mastfrog.parameters.gen.Origin;
+import com.mastfrog.parameters.gen.ParamsRegistry;
+import com.mastfrog.parameters.gen.Validatable;
 import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.parameters.validation.StreamingCheck;
+import com.mastfrog.settings.Settings;
 import com.mastfrog.util.codec.Codec;
 import com.mastfrog.util.streams.Streams;
 import com.mastfrog.util.collections.CollectionUtils;
-import com.mastfrog.util.collections.StringObjectMap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import java.io.IOException;
@@ -40,10 +46,13 @@ import java.net.URL;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
 import javax.inject.Inject;
 import org.netbeans.validation.api.Problems;
 
+import static com.mastfrog.numble.acteur.ActeurNumbleModule.SETTINGS_KEY_SINGLE_PARSE_BODIES;
+
 /**
  *
  * @author Tim Boudreau
@@ -51,19 +60,40 @@ import org.netbeans.validation.api.Problems;
 final class NumbleContentValidationPlugin extends ContentConverter.ContentValidationPlugin {
 
     private final ParamChecker checker;
+    private final ObjectMapper mapper;
+    private final boolean singleParse;
 
     @Inject
-    NumbleContentValidationPlugin(ContentConverter converter, ParamChecker checker) throws ClassNotFoundException, IOException {
+    NumbleContentValidationPlugin(ContentConverter converter, ParamChecker checker, ObjectMapper mapper,
+            Settings settings) throws ClassNotFoundException, IOException {
         super(converter, loadTypes());
         this.checker = checker;
+        this.mapper = mapper;
+        this.singleParse = settings.getBoolean(SETTINGS_KEY_SINGLE_PARSE_BODIES, false);
     }
 
+    /**
+     * Find generated types using the compile-time registries; the class
+     * lists are only read from classpath roots which have no registry, as
+     * with libraries built before registries were generated.
+     */
     static Set<Class<?>> loadTypes() throws IOException, ClassNotFoundException {
         Set<Class<?>> types = new HashSet<>();
         ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        Set<String> covered = new HashSet<>();
+        for (ParamsRegistry registry : ServiceLoader.load(ParamsRegistry.class, cl)) {
+            types.addAll(registry.types());
+            String list = classList(registry.getClass());
+            if (list != null) {
+                covered.add(list);
+            }
+        }
         Enumeration<URL> numbleLists = cl.getResources(Origin.META_INF_PATH);
         if (numbleLists != null) { //graal
             for (URL url : CollectionUtils.toIterable(numbleLists)) {
+                if (covered.contains(url.toString())) {
+                    continue;
+                }
                 try (final InputStream in = url.openStream()) {
                     String[] lines = Streams.readString(in, "UTF-8").split("\n");
                     for (String line : lines) {
@@ -78,37 +108,90 @@ final class NumbleContentValidationPlugin extends ContentConverter.ContentValida
                         // nip that in the bud here
                         try {
                             types.add(cl.loadClass(line));
-                        } catch (Throwable t) {
+                        } catch (ClassNotFoundException ex) {
                             // Graal
-                            t.printStackTrace();
                             types.add(Class.forName(line));
                         }
                     }
                 }
             }
         }
-//        System.out.println("VALIDATION PLUGIN ON " + Strings.join(',', types, Class::getName));
         return types;
     }
 
+    /**
+     * Get the URL of the class list in the same jar or directory as a
+     * registry, which is generated alongside it and lists the same types.
+     *
+     * @return The URL as a string, or null if it cannot be determined
+     */
+    static String classList(Class<?> registryType) {
+        String file = registryType.getName().replace('.', '/') + ".class";
+        ClassLoader ldr = registryType.getClassLoader();
+        URL url = ldr == null ? null : ldr.getResource(file);
+        if (url == null) {
+            return null;
+        }
+        String s = url.toString();
+        return s.endsWith(file) ? s.substring(0, s.length() - file.length()) + Origin.META_INF_PATH : null;
+    }
+
     @Override
     protected <T> void validate(ByteBuf buf, MimeType mimeType, Class<T> type, Codec codec) throws Exception {
         Origin origin = type.getAnnotation(Origin.class);
-        if (origin != null) {
-            StringObjectMap map;
+        // In single-parse mode NumbleContentConverter validates the bound
+        // instance, so parsing the raw body here would be a wasted pass
+        if (origin != null && !(singleParse && Validatable.class.isAssignableFrom(type))) {
             int originalPosition = buf.readerIndex();
-            try (final InputStream in = new ByteBufInputStream(buf)) {
-                map = codec.readValue(in, StringObjectMap.class);
-                validate(origin, map).throwIfFatalPresent();
-            } catch (IOException ioe) {
-                ioe.printStackTrace();
-                throw ioe;
+            try (final JsonParser parser = createParser(buf)) {
+                validate(origin, parser).throwIfFatalPresent();
             } finally {
                 buf.readerIndex(originalPosition);
             }
         }
     }
 
+    /**
+     * Creates a streaming parser over the body using the factory of the
+     * bound ObjectMapper, which the Codec binding reads bodies with, so the
+     * same parser features apply and no tree or map is built.
+     */
+    private JsonParser createParser(ByteBuf buf) throws IOException {
+        if (buf.hasArray()) {
+            return mapper.getFactory().createParser(buf.array(),
+                    buf.arrayOffset() + buf.readerIndex(), buf.readableBytes());
+        }
+        return mapper.getFactory().createParser((InputStream) new ByteBufInputStream(buf));
+    }
+
+    /**
+     * Validates the body a token at a time as it is parsed, rather than
+     * decoding it into a map and converting every value back to a string.
+     */
+    private Problems validate(Origin origin, JsonParser parser) throws IOException {
+        // Started before the first token is read, so its span (and any
+        // Validation event) covers rejecting a body which is not an object
+        StreamingCheck check = checker.startCheck(origin.value(), new Problems());
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return check.reject("Request body is not a JSON object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.getCurrentName();
+            switch (parser.nextToken()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    parser.skipChildren();
+                    check.acceptStructured(key);
+                    break;
+                case VALUE_NULL:
+                    break;
+                default:
+                    check.accept(key, parser.getText());
+            }
+        }
+        return check.finish();
+    }
+
     private Problems validate(Origin origin, Map<String, ?> map) {
         Problems problems = new Problems();
         checker.check(origin.value(), KeysValues.ofMap(map), problems);
@@ -0,0 +1,429 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.acteur;
+
+import com.mastfrog.parameters.KeysValues;
+import com.mastfrog.parameters.TypeValidation;
+import java.nio.CharBuffer;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * KeysValues over the raw query string of a request URI, which finds the
+ * bounds of each parameter on first use, and percent-decodes a value only
+ * when its key is asked for. Decoding follows Netty's QueryStringDecoder:
+ * parameters are separated by &amp; or ;, '+' is a space, escapes are UTF-8,
+ * parameters with empty names are ignored, and the first of several values
+ * for a key wins. Values which contain no escapes are available from
+ * getCharSequence() and the typed getters without copying them.
+ *
+ * @author Tim Boudreau
+ */
+final class QueryStringKeysValues implements KeysValues {
+
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[128]);
+    private static final int KEY_START = 0;
+    private static final int KEY_END = 1;
+    private static final int VALUE_END = 2;
+    private static final int STRIDE = 3;
+    private final String uri;
+    private int[] bounds;
+    private int count = -1;
+    private String[] keys;
+    private String[] values;
+    private Set<String> keySet;
+    private boolean[] repeats;
+    private static final boolean[] NO_REPEATS = new boolean[0];
+
+    QueryStringKeysValues(String uri) {
+        this.uri = uri;
+    }
+
+    @Override
+    public synchronized String get(String key) {
+        int ix = indexOf(key);
+        if (ix < 0) {
+            return null;
+        }
+        String result = values[ix];
+        if (result == null) {
+            int keyEnd = bounds[ix * STRIDE + KEY_END];
+            int valueEnd = bounds[ix * STRIDE + VALUE_END];
+            result = keyEnd == valueEnd ? "" : decode(uri, keyEnd + 1, valueEnd);
+            values[ix] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a view over the URI for values which need no decoding, so
+     * nothing is copied unless a String is actually needed.
+     */
+    @Override
+    public synchronized CharSequence getCharSequence(String key) {
+        int ix = indexOf(key);
+        return ix < 0 ? null : valueView(ix);
+    }
+
+    @Override
+    public synchronized boolean has(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object getObject(String key) {
+        return getCharSequence(key);
+    }
+
+    @Override
+    public int getInt(String key, int ifMissing) {
+        CharSequence seq = getCharSequence(key);
+        return seq == null ? ifMissing : TypeValidation.parseInt(seq);
+    }
+
+    @Override
+    public long getLong(String key, long ifMissing) {
+        CharSequence seq = getCharSequence(key);
+        return seq == null ? ifMissing : TypeValidation.parseLong(seq);
+    }
+
+    @Override
+    public double getDouble(String key, double ifMissing) {
+        CharSequence seq = getCharSequence(key);
+        return seq == null ? ifMissing : TypeValidation.parseDouble(seq);
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean ifMissing) {
+        CharSequence seq = getCharSequence(key);
+        return seq == null ? ifMissing : TypeValidation.parseBoolean(seq);
+    }
+
+    @Override
+    public synchronized Set<String> keySet() {
+        if (keySet == null) {
+            index();
+            Set<String> result = new LinkedHashSet<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                result.add(key(i));
+            }
+            keySet = Collections.unmodifiableSet(result);
+        }
+        return keySet;
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+        Iterator<String> keyIterator = keySet().iterator();
+        return new Iterator<Map.Entry<String, String>>() {
+            @Override
+            public boolean hasNext() {
+                return keyIterator.hasNext();
+            }
+
+            @Override
+            public Map.Entry<String, String> next() {
+                String key = keyIterator.next();
+                return new AbstractMap.SimpleImmutableEntry<>(key, get(key));
+            }
+        };
+    }
+
+    /**
+     * Entries whose values are what getCharSequence() returns, so a single
+     * pass over the parameters decodes nothing that needs no decoding.
+     * Entries are visited in order straight from their bounds; later
+     * repeats of a key are skipped, since the first value wins.
+     */
+    @Override
+    public Iterable<? extends Map.Entry<String, ?>> objectEntries() {
+        return () -> new Iterator<Map.Entry<String, ?>>() {
+            private int ix = nextEntry(0);
+
+            @Override
+            public boolean hasNext() {
+                return ix < count;
+            }
+
+            @Override
+            public Map.Entry<String, ?> next() {
+                if (ix >= count) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<String, ?> result;
+                synchronized (QueryStringKeysValues.this) {
+                    result = new AbstractMap.SimpleImmutableEntry<>(key(ix), valueView(ix));
+                }
+                ix = nextEntry(ix + 1);
+                return result;
+            }
+        };
+    }
+
+    private synchronized int nextEntry(int from) {
+        index();
+        boolean[] rep = repeats();
+        while (rep != null && from < count && rep[from]) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Flags each parameter whose key also occurs earlier, found once with
+     * an open-addressed table of indices; null if no key repeats.
+     */
+    private boolean[] repeats() {
+        if (repeats != null || count < 2) {
+            return repeats == NO_REPEATS ? null : repeats;
+        }
+        int[] table = new int[Integer.highestOneBit(count * 2 - 1) << 1];
+        int mask = table.length - 1;
+        boolean[] result = null;
+        for (int i = 0; i < count; i++) {
+            String key = key(i);
+            int slot = key.hashCode() & mask;
+            for (;;) {
+                int prev = table[slot] - 1;
+                if (prev < 0) {
+                    table[slot] = i + 1;
+                    break;
+                } else if (keys[prev].equals(key)) {
+                    if (result == null) {
+                        result = new boolean[count];
+                    }
+                    result[i] = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        repeats = result == null ? NO_REPEATS : result;
+        return result;
+    }
+
+    /**
+     * The value at an index: a view over the URI for values which need no
+     * decoding, so nothing is copied unless a String is actually needed.
+     */
+    private CharSequence valueView(int ix) {
+        if (values[ix] != null) {
+            return values[ix];
+        }
+        int start = bounds[ix * STRIDE + KEY_END];
+        int end = bounds[ix * STRIDE + VALUE_END];
+        if (start == end) {
+            return "";
+        }
+        if (needsDecoding(uri, start + 1, end)) {
+            String result = decode(uri, start + 1, end);
+            values[ix] = result;
+            return result;
+        }
+        return CharBuffer.wrap(uri, start + 1, end);
+    }
+
+    private int indexOf(String key) {
+        index();
+        int length = key.length();
+        for (int i = 0; i < count; i++) {
+            int start = bounds[i * STRIDE + KEY_START];
+            int end = bounds[i * STRIDE + KEY_END];
+            String decoded = keys[i];
+            if (decoded != null) {
+                if (decoded.equals(key)) {
+                    return i;
+                }
+            } else if (end - start == length && uri.regionMatches(start, key, 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String key(int ix) {
+        String result = keys[ix];
+        if (result == null) {
+            result = decode(uri, bounds[ix * STRIDE + KEY_START], bounds[ix * STRIDE + KEY_END]);
+            keys[ix] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Find the bounds of each parameter; keys which need decoding are
+     * decoded here since every lookup has to compare them.
+     */
+    private void index() {
+        if (count >= 0) {
+            return;
+        }
+        int start = uri.indexOf('?');
+        int end = uri.indexOf('#');
+        if (end < 0) {
+            end = uri.length();
+        }
+        int[] b = new int[STRIDE * 8];
+        int n = 0;
+        if (start >= 0 && start < end) {
+            int segmentStart = start + 1;
+            int eq = -1;
+            for (int i = segmentStart; i <= end; i++) {
+                char c = i == end ? '&' : uri.charAt(i);
+                if (c == '=' && eq < 0) {
+                    eq = i;
+                } else if (c == '&' || c == ';') {
+                    int keyEnd = eq < 0 ? i : eq;
+                    if (keyEnd > segmentStart) {
+                        if ((n + 1) * STRIDE > b.length) {
+                            int[] nue = new int[b.length * 2];
+                            System.arraycopy(b, 0, nue, 0, b.length);
+                            b = nue;
+                        }
+                        b[n * STRIDE + KEY_START] = segmentStart;
+                        b[n * STRIDE + KEY_END] = keyEnd;
+                        b[n * STRIDE + VALUE_END] = i;
+                        n++;
+                    }
+                    segmentStart = i + 1;
+                    eq = -1;
+                }
+            }
+        }
+        bounds = b;
+        keys = new String[n];
+        values = new String[n];
+        for (int i = 0; i < n; i++) {
+            if (needsDecoding(uri, b[i * STRIDE + KEY_START], b[i * STRIDE + KEY_END])) {
+                keys[i] = decode(uri, b[i * STRIDE + KEY_START], b[i * STRIDE + KEY_END]);
+            }
+        }
+        count = n;
+    }
+
+    private static boolean needsDecoding(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '%' || c == '+') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String decode(String s, int from, int to) {
+        if (!needsDecoding(s, from, to)) {
+            return s.substring(from, to);
+        }
+        char[] out = SCRATCH.get();
+        if (out.length < to - from) {
+            out = new char[Math.max(to - from, out.length * 2)];
+            SCRATCH.set(out);
+        }
+        int len = 0;
+        int i = from;
+        while (i < to) {
+            char c = s.charAt(i);
+            if (c == '+') {
+                out[len++] = ' ';
+                i++;
+            } else if (c != '%') {
+                out[len++] = c;
+                i++;
+            } else {
+                // A run of escapes is UTF-8, which never decodes to more
+                // chars than it has escapes, so the output cannot overflow
+                int lead = escapedByte(s, i, to);
+                i += 3;
+                int extra;
+                int cp;
+                if (lead < 0x80) {
+                    extra = 0;
+                    cp = lead;
+                } else if ((lead & 0xE0) == 0xC0) {
+                    extra = 1;
+                    cp = lead & 0x1F;
+                } else if ((lead & 0xF0) == 0xE0) {
+                    extra = 2;
+                    cp = lead & 0x0F;
+                } else if ((lead & 0xF8) == 0xF0) {
+                    extra = 3;
+                    cp = lead & 0x07;
+                } else {
+                    out[len++] = '\uFFFD';
+                    continue;
+                }
+                boolean malformed = false;
+                for (int j = 0; j < extra; j++) {
+                    if (i >= to || s.charAt(i) != '%') {
+                        malformed = true;
+                        break;
+                    }
+                    int next = escapedByte(s, i, to);
+                    if ((next & 0xC0) != 0x80) {
+                        malformed = true;
+                        break;
+                    }
+                    cp = (cp << 6) | (next & 0x3F);
+                    i += 3;
+                }
+                if (malformed || (extra == 1 && cp < 0x80) || (extra == 2 && cp < 0x800)
+                        || (extra == 3 && (cp < 0x10000 || cp > 0x10FFFF))
+                        || (cp >= 0xD800 && cp <= 0xDFFF)) {
+                    out[len++] = '\uFFFD';
+                } else if (cp >= 0x10000) {
+                    out[len++] = Character.highSurrogate(cp);
+                    out[len++] = Character.lowSurrogate(cp);
+                } else {
+                    out[len++] = (char) cp;
+                }
+            }
+        }
+        return new String(out, 0, len);
+    }
+
+    private static int escapedByte(String s, int at, int to) {
+        if (at + 2 >= to) {
+            throw new IllegalArgumentException("Unterminated escape sequence at "
+                    + at + " of " + s.substring(at, to));
+        }
+        int hi = Character.digit(s.charAt(at + 1), 16);
+        int lo = Character.digit(s.charAt(at + 2), 16);
+        if (hi < 0 || lo < 0) {
+            throw new IllegalArgumentException("Invalid escape sequence '"
+                    + s.substring(at, at + 3) + "' at " + at);
+        }
+        return (hi << 4) | lo;
+    }
+
+    @Override
+    public String toString() {
+        return keySet().toString();
+    }
+}
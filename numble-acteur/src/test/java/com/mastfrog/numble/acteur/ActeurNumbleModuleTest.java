@@ -23,7 +23,50 @@
  */
 package com.mastfrog.numble.acteur;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.mastfrog.acteur.HttpEvent;
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.mime.MimeType;
+import com.mastfrog.parameters.KeysValues;
+import com.mastfrog.parameters.gen.Origin;
+import com.mastfrog.parameters.gen.ParamsRegistry;
+import com.mastfrog.parameters.validation.ValidationMetrics;
+import com.mastfrog.settings.Settings;
+import com.mastfrog.settings.SettingsBuilder;
+import com.mastfrog.util.codec.Codec;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import org.junit.Test;
+import org.netbeans.validation.api.InvalidInputException;
+import org.netbeans.validation.api.Problems;
 
 /**
  *
@@ -38,4 +81,153 @@ public class ActeurNumbleModuleTest {
     public void testSomeMethod() {
     }
 
+    @Test
+    public void testRegistriesReplaceClassLists() throws Exception {
+        assertTrue(NumbleContentValidationPlugin.loadTypes().contains(NumblePageParams.class));
+        // The class list beside this module's registry is the one skipped
+        Set<String> lists = new HashSet<>();
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        for (URL url : Collections.list(cl.getResources(Origin.META_INF_PATH))) {
+            lists.add(url.toString());
+        }
+        boolean found = false;
+        for (ParamsRegistry registry : ServiceLoader.load(ParamsRegistry.class, cl)) {
+            if (registry.types().contains(NumblePageParams.class)) {
+                String list = NumbleContentValidationPlugin.classList(registry.getClass());
+                assertTrue(list + " not in " + lists, lists.contains(list));
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testQueryStringKeysValues() {
+        String[] uris = {"/foo", "/foo?", "/foo?a=1&b=2&a=3", "/foo?a+b=c+d&e=%41%42%c3%a9%e2%82%ac%f0%9f%98%80",
+            "/foo?flag&=x&x=&y=1;z=2", "/foo?q=%e2%82&r=%ff", "/foo?%61=lazy&long=" + String.join("", Collections.nCopies(300, "%41"))};
+        for (String uri : uris) {
+            Map<String, List<String>> expected = new QueryStringDecoder(uri).parameters();
+            KeysValues kv = new QueryStringKeysValues(uri);
+            assertEquals(uri, expected.keySet(), kv.keySet());
+            for (Map.Entry<String, List<String>> e : expected.entrySet()) {
+                assertEquals(uri, e.getValue().get(0), kv.get(e.getKey()));
+            }
+            assertNull(kv.get("missing"));
+            int entries = 0;
+            for (Map.Entry<String, String> e : kv) {
+                assertEquals(expected.get(e.getKey()).get(0), e.getValue());
+                entries++;
+            }
+            assertEquals(expected.size(), entries);
+        }
+    }
+
+    @Test
+    public void testQueryStringViews() {
+        KeysValues kv = new QueryStringKeysValues("/numble?host=example.com&port=8080&bool=FALSE&name=a%20b");
+        CharSequence port = kv.getCharSequence("port");
+        assertFalse(port instanceof String);
+        assertEquals("8080", port.toString());
+        assertEquals("a b", kv.getCharSequence("name"));
+        assertEquals(8080, kv.getInt("port"));
+        assertEquals(8080L, kv.getLong("port", 0L));
+        assertFalse(kv.getBoolean("bool", true));
+        assertEquals(7, kv.getInt("missing", 7));
+        assertTrue(kv.has("host"));
+        NumblePageParams params = new NumblePageParams(kv);
+        assertEquals("example.com", params.getHost());
+        assertEquals(8080, params.getPort());
+        assertFalse(params.getBool());
+        Problems problems = new Problems();
+        assertEquals(params, NumblePageParams.tryCreate(kv, problems));
+        assertFalse(problems.hasFatal());
+        assertNull(NumblePageParams.tryCreate(new QueryStringKeysValues("/numble?port=80x"), problems));
+        assertEquals(problems.toString(), "port is not a non-negative integer: '80x'", problems.getLeadProblem().getMessage());
+    }
+
+    @Test
+    public void testKeysValuesParsedOncePerRequest() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        AtomicReference<HttpEvent> current = new AtomicReference<>();
+        Injector inj = Guice.createInjector(binder -> {
+            binder.bind(HttpEvent.class).toProvider(current::get);
+            binder.bind(KeysValues.class).toProvider(ActeurNumbleModule.KeysValuesProvider.class);
+        });
+        Provider<KeysValues> kv = inj.getProvider(KeysValues.class);
+        try {
+            current.set(event(channel, "/numble?host=example.com&port=8080"));
+            KeysValues first = kv.get();
+            assertSame(first, kv.get());
+            assertSame(first, inj.getInstance(KeysValues.class));
+            assertEquals(8080, first.getInt("port"));
+
+            current.set(event(channel, "/numble?port=80"));
+            KeysValues second = kv.get();
+            assertNotSame(first, second);
+            assertSame(second, inj.getInstance(KeysValues.class));
+            assertEquals(80, second.getInt("port"));
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static HttpEvent event(Channel channel, String uri) {
+        HttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+        return (HttpEvent) Proxy.newProxyInstance(ActeurNumbleModuleTest.class.getClassLoader(),
+                new Class<?>[]{HttpEvent.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "request":
+                            return request;
+                        case "channel":
+                            return channel;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Test
+    public void testSingleParseBodies() throws Exception {
+        Settings settings = new SettingsBuilder()
+                .add(ActeurNumbleModule.SETTINGS_KEY_SINGLE_PARSE_BODIES, true).build();
+        Dependencies deps = new Dependencies(settings);
+        try {
+            ObjectMapper mapper = new ObjectMapper();
+            Codec codec = new Codec() {
+                @Override
+                public <T> T readValue(InputStream in, Class<T> type) throws IOException {
+                    return mapper.readValue(in, type);
+                }
+
+                @Override
+                public <T> byte[] writeValueAsBytes(T object) throws IOException {
+                    return mapper.writeValueAsBytes(object);
+                }
+            };
+            NumbleContentConverter converter = new NumbleContentConverter(codec,
+                    () -> StandardCharsets.UTF_8, deps, settings, deps.getInjector(),
+                    deps.getInstance(ValidationMetrics.class));
+
+            NumblePageParams params = converter.toObject(Unpooled.copiedBuffer(
+                    "{\"host\":\"example.com\",\"port\":8080}", StandardCharsets.UTF_8),
+                    MimeType.JSON_UTF_8, NumblePageParams.class);
+            assertEquals("example.com", params.getHost());
+            assertEquals(8080, params.getPort());
+            assertTrue(params.getBool());
+
+            for (String bad : new String[]{"{\"port\":80396}", "{\"port\":-1}",
+                "{\"host\":\"example.com\"}", "{\"port\":\"http\"}", "null"}) {
+                try {
+                    converter.toObject(Unpooled.copiedBuffer(bad, StandardCharsets.UTF_8),
+                            MimeType.JSON_UTF_8, NumblePageParams.class);
+                    fail("Should have been rejected: " + bad);
+                } catch (InvalidInputException ex) {
+                    // ok
+                }
+            }
+        } finally {
+            deps.shutdown();
+        }
+    }
+
 }
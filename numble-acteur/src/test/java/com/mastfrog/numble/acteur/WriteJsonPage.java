@@ -0,0 +1,46 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.acteur;
+
+import com.mastfrog.parameters.Param;
+import com.mastfrog.parameters.Params;
+import com.mastfrog.parameters.Types;
+
+/**
+ * Netty is on this module's compile classpath, so the generated class gets
+ * writeJson(ByteBuf) as well.
+ *
+ * @author Tim Boudreau
+ */
+@Params(value = {
+    @Param(value = "host", defaultValue = "timboudreau.com", required = false),
+    @Param(value = "port", type = Types.NON_NEGATIVE_INTEGER),
+    @Param(value = "bool", type = Types.BOOLEAN, defaultValue = "true")
+},
+        allowUnlistedParameters = true,
+        generateToJSON = true
+)
+public class WriteJsonPage {
+
+}
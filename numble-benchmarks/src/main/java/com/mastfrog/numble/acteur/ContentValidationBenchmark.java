@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.acteur;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.AbstractModule;
+import com.mastfrog.acteur.ContentConverter;
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.mime.MimeType;
+import com.mastfrog.parameters.benchmarks.Fixtures;
+import com.mastfrog.parameters.benchmarks.LargePageParams;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.settings.Settings;
+import com.mastfrog.util.codec.Codec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * NumbleContentValidationPlugin.validate() over a JSON request body; lives in
+ * this package because the plugin is package-private.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContentValidationBenchmark {
+
+    private Dependencies deps;
+    private NumbleContentValidationPlugin plugin;
+    private Codec codec;
+    private ByteBuf body;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        codec = new JacksonCodec(mapper);
+        deps = new Dependencies(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Codec.class).toInstance(codec);
+            }
+        });
+        ContentConverter converter = new ContentConverter(codec, () -> StandardCharsets.UTF_8, deps);
+        plugin = new NumbleContentValidationPlugin(converter, deps.getInstance(ParamChecker.class), mapper,
+                deps.getInstance(Settings.class));
+        body = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(
+                Fixtures.largeJson().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        deps.shutdown();
+    }
+
+    @Benchmark
+    public ByteBuf validateBody() throws Exception {
+        plugin.validate(body, MimeType.JSON_UTF_8, LargePageParams.class, codec);
+        return body;
+    }
+
+    static final class JacksonCodec implements Codec {
+
+        private final ObjectMapper mapper;
+
+        JacksonCodec(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public <T> T readValue(InputStream in, Class<T> type) throws IOException {
+            return mapper.readValue(in, type);
+        }
+
+        @Override
+        public <T> byte[] writeValueAsBytes(T object) throws IOException {
+            return mapper.writeValueAsBytes(object);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Input data shared by the benchmarks.
+ *
+ * @author Tim Boudreau
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+        throw new AssertionError();
+    }
+
+    public static Map<String, String> smallValid() {
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("id", "8675309");
+        result.put("verbose", "true");
+        result.put("q", "widgets");
+        return result;
+    }
+
+    public static Map<String, String> largeValid() {
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("accountId", "1234567890123");
+        result.put("userName", "joe_user");
+        result.put("email", "joe@example.com");
+        result.put("latitude", "37.774929");
+        result.put("longitude", "-122.419416");
+        result.put("radius", "2.25");
+        result.put("price", "19.99");
+        result.put("quantity", "12");
+        result.put("offset", "-3");
+        result.put("limit", "100");
+        result.put("since", "1577836800000");
+        result.put("until", "1609459200000");
+        result.put("delta", "42");
+        result.put("includeDeleted", "false");
+        result.put("expand", "TRUE");
+        result.put("sort", "created");
+        result.put("order", "desc");
+        result.put("locale", "en_US");
+        result.put("tag", "blue");
+        result.put("sessionId", "a1b2c3d4e5f6");
+        return result;
+    }
+
+    public static Map<String, String> largeInvalid() {
+        Map<String, String> result = largeValid();
+        result.put("accountId", "-1");
+        result.put("userName", "9 lives");
+        result.put("latitude", "1.2.3");
+        result.put("quantity", "99999999999");
+        result.put("expand", "maybe");
+        result.remove("sessionId");
+        result.put("unknownKey", "x");
+        return result;
+    }
+
+    public static String largeJson() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, String> e : largeValid().entrySet()) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append('"').append(e.getKey()).append("\":");
+            switch (e.getKey()) {
+                case "userName":
+                case "email":
+                case "sort":
+                case "order":
+                case "locale":
+                case "tag":
+                case "sessionId":
+                    sb.append('"').append(e.getValue()).append('"');
+                    break;
+                case "expand":
+                    sb.append("true");
+                    break;
+                default:
+                    sb.append(e.getValue());
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.benchmarks;
+
+import com.mastfrog.parameters.Param;
+import com.mastfrog.parameters.Params;
+import com.mastfrog.parameters.Types;
+import static org.netbeans.validation.api.builtin.stringvalidation.StringValidators.EMAIL_ADDRESS;
+import static org.netbeans.validation.api.builtin.stringvalidation.StringValidators.MAY_NOT_START_WITH_DIGIT;
+import static org.netbeans.validation.api.builtin.stringvalidation.StringValidators.NO_WHITESPACE;
+
+/**
+ * A large declaration mixing every type, defaults, optional parameters and
+ * constraints.
+ *
+ * @author Tim Boudreau
+ */
+@Params(value = {
+    @Param(value = "accountId", type = Types.NON_NEGATIVE_LONG),
+    @Param(value = "userName", type = Types.NON_EMPTY_STRING, constraints = {NO_WHITESPACE, MAY_NOT_START_WITH_DIGIT}),
+    @Param(value = "email", type = Types.STRING, required = false, constraints = EMAIL_ADDRESS),
+    @Param(value = "latitude", type = Types.DOUBLE),
+    @Param(value = "longitude", type = Types.DOUBLE),
+    @Param(value = "radius", type = Types.DOUBLE, defaultValue = "1.5"),
+    @Param(value = "price", type = Types.DOUBLE, required = false),
+    @Param(value = "quantity", type = Types.NON_NEGATIVE_INTEGER),
+    @Param(value = "offset", type = Types.INTEGER, defaultValue = "0"),
+    @Param(value = "limit", type = Types.NON_NEGATIVE_INTEGER, defaultValue = "50"),
+    @Param(value = "since", type = Types.LONG, required = false),
+    @Param(value = "until", type = Types.LONG, required = false),
+    @Param(value = "delta", type = Types.INTEGER, required = false),
+    @Param(value = "includeDeleted", type = Types.BOOLEAN, defaultValue = "false"),
+    @Param(value = "expand", type = Types.BOOLEAN, required = false),
+    @Param(value = "sort", type = Types.NON_EMPTY_STRING, defaultValue = "name"),
+    @Param(value = "order", type = Types.STRING, defaultValue = "asc"),
+    @Param(value = "locale", type = Types.STRING, required = false),
+    @Param(value = "tag", type = Types.STRING, required = false, constraints = NO_WHITESPACE),
+    @Param(value = "sessionId", type = Types.NON_EMPTY_STRING)},
+        generateToJSON = true)
+public class LargePage {
+
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.benchmarks;
+
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.parameters.KeysValues;
+import com.mastfrog.parameters.validation.ParamChecker;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.validation.api.Problems;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ParamChecker.check() against small and large declarations, and a batch of
+ * large records checked in a loop or with checkAll().
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParamCheckerBenchmark {
+
+    private static final int BATCH_SIZE = 100_000;
+    private Dependencies deps;
+    private ParamChecker checker;
+    private KeysValues small;
+    private KeysValues large;
+    private KeysValues largeInvalid;
+    private List<KeysValues> batch;
+
+    @Setup
+    public void setup() throws IOException {
+        deps = new Dependencies();
+        checker = deps.getInstance(ParamChecker.class);
+        small = KeysValues.ofMap(Fixtures.smallValid());
+        large = KeysValues.ofMap(Fixtures.largeValid());
+        largeInvalid = KeysValues.ofMap(Fixtures.largeInvalid());
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(KeysValues.ofMap(i % 10 == 0 ? Fixtures.largeInvalid() : Fixtures.largeValid()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        deps.shutdown();
+    }
+
+    @Benchmark
+    public Problems checkSmall() {
+        Problems problems = new Problems();
+        checker.check(SmallPage.class, small, problems);
+        return problems;
+    }
+
+    @Benchmark
+    public Problems checkLarge() {
+        Problems problems = new Problems();
+        checker.check(LargePage.class, large, problems);
+        return problems;
+    }
+
+    @Benchmark
+    public Problems checkLargeInvalid() {
+        Problems problems = new Problems();
+        checker.check(LargePage.class, largeInvalid, problems);
+        return problems;
+    }
+
+    @Benchmark
+    public int checkBatchLoop() {
+        int invalid = 0;
+        for (KeysValues record : batch) {
+            Problems problems = new Problems();
+            checker.check(LargePage.class, record, problems);
+            if (problems.hasFatal()) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    @Benchmark
+    public int checkBatchParallel() {
+        return checker.checkAll(LargePage.class, batch).invalidCount();
+    }
+}
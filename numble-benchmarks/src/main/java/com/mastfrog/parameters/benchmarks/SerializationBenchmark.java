@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.mastfrog.parameters.KeysValues;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * toMap(), toJSON() and writeJson() on generated classes.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    private SmallPageParams small;
+    private LargePageParams large;
+    private final ByteBuf buf = Unpooled.buffer(4096);
+
+    @Setup
+    public void setup() {
+        small = new SmallPageParams(KeysValues.ofMap(Fixtures.smallValid()));
+        large = new LargePageParams(KeysValues.ofMap(Fixtures.largeValid()));
+    }
+
+    @Benchmark
+    public Map<String, Object> toMapSmall() {
+        return small.toMap();
+    }
+
+    @Benchmark
+    public Map<String, Object> toMapLarge() {
+        return large.toMap();
+    }
+
+    @Benchmark
+    public String toJsonSmall() throws JsonProcessingException {
+        return small.toJSON();
+    }
+
+    @Benchmark
+    public String toJsonLarge() throws JsonProcessingException {
+        return large.toJSON();
+    }
+
+    @Benchmark
+    public ByteBuf writeJsonSmall() throws IOException {
+        buf.clear();
+        small.writeJson(buf);
+        return buf;
+    }
+
+    @Benchmark
+    public ByteBuf writeJsonLarge() throws IOException {
+        buf.clear();
+        large.writeJson(buf);
+        return buf;
+    }
+}
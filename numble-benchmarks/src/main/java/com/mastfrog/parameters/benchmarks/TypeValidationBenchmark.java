@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.benchmarks;
+
+import com.mastfrog.parameters.TypeValidation;
+import com.mastfrog.parameters.Types;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.validation.api.Problems;
+import org.netbeans.validation.api.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Each type validator, with a valid and an invalid value.
+ *
+ * @author Tim Boudreau
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TypeValidationBenchmark {
+
+    @Param({"DOUBLE", "INTEGER", "LONG", "NON_NEGATIVE_INTEGER", "NON_NEGATIVE_LONG",
+        "BOOLEAN", "NON_EMPTY_STRING", "STRING"})
+    public Types type;
+
+    private Validator<String> validator;
+    private String valid;
+    private String invalid;
+
+    @Setup
+    public void setup() {
+        validator = TypeValidation.validator(type);
+        switch (type) {
+            case DOUBLE:
+                valid = "-122.419416";
+                invalid = "1.2.3";
+                break;
+            case INTEGER:
+                valid = "-2147483648";
+                invalid = "2147483648";
+                break;
+            case LONG:
+                valid = "1577836800000";
+                invalid = "15778368000x0";
+                break;
+            case NON_NEGATIVE_INTEGER:
+                valid = "65535";
+                invalid = "-65535";
+                break;
+            case NON_NEGATIVE_LONG:
+                valid = "9223372036854775807";
+                invalid = "9223372036854775808";
+                break;
+            case BOOLEAN:
+                valid = "True";
+                invalid = "yes";
+                break;
+            default:
+                valid = "hello";
+                invalid = "   ";
+        }
+    }
+
+    @Benchmark
+    public Problems validateValid() {
+        Problems problems = new Problems();
+        validator.validate(problems, "param", valid);
+        return problems;
+    }
+
+    @Benchmark
+    public Problems validateInvalid() {
+        Problems problems = new Problems();
+        validator.validate(problems, "param", invalid);
+        return problems;
+    }
+}
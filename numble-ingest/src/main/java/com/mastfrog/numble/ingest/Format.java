@@ -0,0 +1,46 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.ingest;
+
+/**
+ * Formats an Ingester can read. Either way, each record ends with a line
+ * break - LF or CRLF - and only CSV records may span lines.
+ *
+ * @author Tim Boudreau
+ */
+public enum Format {
+    /**
+     * One JSON object per line, whose properties are strings, numbers,
+     * booleans or null (which is treated as absent).
+     */
+    NDJSON,
+    /**
+     * Comma-separated values, with a header line naming the parameter each
+     * column holds. Fields may be quoted, with doubled quotes standing for
+     * a quote; a quoted field may contain line breaks, which are part of
+     * its value. A quote anywhere but the start of a field is an ordinary
+     * character. An empty, unquoted field is treated as absent.
+     */
+    CSV
+}
@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.ingest;
+
+/**
+ * Counts of what happened to the records in a file passed to an Ingester.
+ *
+ * @author Tim Boudreau
+ */
+public final class IngestStats {
+
+    private final long records;
+    private final long accepted;
+    private final long rejected;
+
+    IngestStats(long records, long accepted, long rejected) {
+        this.records = records;
+        this.accepted = accepted;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Get the number of records read, not counting blank lines or a CSV
+     * header.
+     *
+     * @return The count
+     */
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Get the number of records which were valid and passed to the consumer.
+     *
+     * @return The count
+     */
+    public long accepted() {
+        return accepted;
+    }
+
+    /**
+     * Get the number of records passed to the RejectHandler.
+     *
+     * @return The count
+     */
+    public long rejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return records + " records, " + accepted + " accepted, " + rejected + " rejected";
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.ingest;
+
+import com.mastfrog.parameters.KeysValues;
+import com.mastfrog.parameters.gen.Origin;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.parameters.validation.ValidationResult;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Reads a large NDJSON or CSV file, validates each record against the
+ * &#064;Params declaration a generated <code>XxxParams</code> class was
+ * created from, and constructs an instance of it for each valid one. Each
+ * record is converted once, by the class's <code>tryCreate()</code> method,
+ * which also checks presence and types; only the constraints and custom
+ * validators are run on records it accepts. Invalid records go to a
+ * RejectHandler along with the number of the line they start on.
+ * <p>
+ * The file is memory-mapped a window at a time, and each window is cut into
+ * batches of records which are parsed, validated and constructed in
+ * parallel. The number of batches in flight is bounded, so memory use
+ * depends on the window and batch sizes, not the size of the file; each
+ * window is unmapped once its batches are done, where the JDK allows it
+ * (9 and later), rather than when it is garbage collected. Records are
+ * passed to the consumer from worker threads, in no particular order.
+ * <p>
+ * A CSV record spans lines if a quoted field in it contains line breaks;
+ * every record, including such ones, must fit in the window.
+ *
+ * @param <T> The generated Params type
+ * @author Tim Boudreau
+ */
+public final class Ingester<T> {
+
+    private final Class<T> paramsType;
+    private final Class<?> declaringType;
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+    private final MethodHandle tryCreate;
+    private final ParamChecker checker;
+    private final Format format;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int batchLines = 4096;
+    private int windowSize = 64 * 1024 * 1024;
+
+    /**
+     * Create an ingester.
+     *
+     * @param paramsType A class generated from a &#064;Params annotation
+     * @param checker The checker to validate records with
+     * @param format The file format
+     * @throws IllegalArgumentException if the type was not generated from
+     * a &#064;Params annotation
+     */
+    public Ingester(Class<T> paramsType, ParamChecker checker, Format format) {
+        this.paramsType = paramsType;
+        this.checker = checker;
+        this.format = format;
+        Origin origin = paramsType.getAnnotation(Origin.class);
+        if (origin == null) {
+            throw new IllegalArgumentException(paramsType.getName()
+                    + " was not generated from a @Params annotation");
+        }
+        declaringType = origin.value();
+        try {
+            tryCreate = MethodHandles.publicLookup().findStatic(paramsType, "tryCreate",
+                    MethodType.methodType(paramsType, KeysValues.class, Problems.class))
+                    .asType(MethodType.methodType(Object.class, KeysValues.class, Problems.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new IllegalArgumentException(paramsType.getName()
+                    + " has no public tryCreate(KeysValues, Problems) method", ex);
+        }
+    }
+
+    /**
+     * Set the number of worker threads; the default is the number of
+     * processors.
+     *
+     * @param threads The number of threads
+     * @return this
+     */
+    public Ingester<T> threads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be > 0: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of records (lines, unless CSV fields contain
+     * line breaks) handed to a worker at a time; the default is 4096.
+     *
+     * @param batchLines The number of records
+     * @return this
+     */
+    public Ingester<T> batchLines(int batchLines) {
+        if (batchLines < 1) {
+            throw new IllegalArgumentException("Batch size must be > 0: " + batchLines);
+        }
+        this.batchLines = batchLines;
+        return this;
+    }
+
+    /**
+     * Set the number of bytes of the file mapped at a time; the default is
+     * 64Mb. No record may be longer than this.
+     *
+     * @param windowSize The number of bytes
+     * @return this
+     */
+    public Ingester<T> windowSize(int windowSize) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("Window size must be > 1: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    /**
+     * Ingest a file. Exceptions thrown by the consumer or reject handler
+     * stop the ingest and are rethrown from here.
+     *
+     * @param file The file
+     * @param records Receives an instance of the Params type for each valid
+     * record; called from worker threads, so must be thread-safe
+     * @param rejects Receives invalid records
+     * @return Counts of records accepted and rejected
+     * @throws IOException If the file cannot be read, or has a record longer
+     * than the window size
+     */
+    public IngestStats ingest(Path file, Consumer<? super T> records, RejectHandler rejects) throws IOException {
+        Run run = new Run(records, rejects);
+        int maxInFlight = threads * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "numble-ingest-" + paramsType.getSimpleName());
+            t.setDaemon(true);
+            return t;
+        });
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordSplitter splitter = new RecordSplitter(format);
+            long size = channel.size();
+            long position = 0;
+            long line = 1;
+            while (position < size && run.failure.get() == null) {
+                long length = Math.min(windowSize, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                try {
+                    int limit = (int) length;
+                    int start = 0;
+                    if (position == 0) {
+                        start = skipByteOrderMark(window, limit);
+                        if (format == Format.CSV) {
+                            int eol = splitter.next(window, start, limit);
+                            if (eol < 0 && !last) {
+                                throw new IOException("CSV header of " + file
+                                        + " is longer than the window size of " + windowSize + " bytes");
+                            }
+                            int end = trimLineEnd(window, start, eol < 0 ? limit : eol);
+                            byte[] bytes = new byte[end - start];
+                            ByteBuffer dup = window.duplicate();
+                            dup.position(start);
+                            dup.get(bytes);
+                            run.header = RecordParser.Csv.parseHeader(bytes, bytes.length);
+                            if (run.header == null) {
+                                throw new IOException("Malformed CSV header in " + file);
+                            }
+                            start = eol < 0 ? limit : eol + 1;
+                            line += splitter.lines();
+                        }
+                    }
+                    // Only whole records; the rest is remapped in the next window
+                    int batchStart = start;
+                    long batchLine = line;
+                    int batched = 0;
+                    int pos = start;
+                    while (pos < limit) {
+                        int eol = splitter.next(window, pos, limit);
+                        if (eol < 0 && !last) {
+                            break;
+                        }
+                        pos = eol < 0 ? limit : eol + 1;
+                        line += splitter.lines();
+                        if (++batched == batchLines) {
+                            submit(pool, inFlight, run, window, batchStart, pos, batchLine);
+                            batchStart = pos;
+                            batchLine = line;
+                            batched = 0;
+                        }
+                    }
+                    if (batchStart < pos) {
+                        submit(pool, inFlight, run, window, batchStart, pos, batchLine);
+                    }
+                    if (pos == 0) {
+                        throw new IOException("Line " + line + " of " + file
+                                + " starts a record longer than the window size of " + windowSize + " bytes");
+                    }
+                    position += pos;
+                } finally {
+                    // Workers must be done reading the window before it is
+                    // unmapped; reading it after would crash the JVM
+                    inFlight.acquireUninterruptibly(maxInFlight);
+                    inFlight.release(maxInFlight);
+                    unmap(window);
+                }
+            }
+        } finally {
+            inFlight.acquireUninterruptibly(maxInFlight);
+            pool.shutdown();
+        }
+        Throwable failure = run.failure.get();
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IOException(failure);
+        }
+        return new IngestStats(run.records.sum(), run.accepted.sum(), run.rejected.sum());
+    }
+
+    private void submit(ExecutorService pool, Semaphore inFlight, Run run, ByteBuffer window,
+            int start, int end, long firstLine) throws IOException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException ex) {
+            throw new InterruptedIOException("Interrupted at line " + firstLine);
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    if (run.failure.get() == null) {
+                        run.worker.get().batch(window, start, end, firstLine);
+                    }
+                } catch (Throwable t) {
+                    run.failure.compareAndSet(null, t);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Find Unsafe.invokeCleaner(), which unmaps a mapped buffer on JDK 9 and
+     * later.
+     */
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeType = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeType.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup().findVirtual(unsafeType, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class)).bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // JDK 8, or no access - mappings are released when collected
+            return null;
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+            } catch (Throwable ex) {
+                // Released when collected
+            }
+        }
+    }
+
+    private static int skipByteOrderMark(ByteBuffer buffer, int limit) {
+        if (limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB
+                && buffer.get(2) == (byte) 0xBF) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private static int trimLineEnd(ByteBuffer buffer, int start, int end) {
+        return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * State of one call to ingest().
+     */
+    private final class Run {
+
+        private final Consumer<? super T> consumer;
+        private final RejectHandler rejects;
+        private final LongAdder records = new LongAdder();
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final ThreadLocal<Worker> worker = ThreadLocal.withInitial(Worker::new);
+        private volatile String[] header;
+
+        Run(Consumer<? super T> consumer, RejectHandler rejects) {
+            this.consumer = consumer;
+            this.rejects = rejects;
+        }
+
+        /**
+         * Per-thread state, reused from record to record.
+         */
+        private final class Worker {
+
+            private final RecordParser parser = RecordParser.create(format, header);
+            private final RecordSplitter splitter = new RecordSplitter(format);
+            private final Map<String, Object> values = new HashMap<>();
+            private final KeysValues keysValues = KeysValues.ofMap(values);
+
+            void batch(ByteBuffer window, int start, int end, long firstLine) throws Exception {
+                long line = firstLine;
+                int pos = start;
+                while (pos < end) {
+                    int eol = splitter.next(window, pos, end);
+                    int recordEnd = eol < 0 ? end : eol;
+                    record(window, pos, recordEnd, line);
+                    line += splitter.lines();
+                    pos = recordEnd + 1;
+                }
+            }
+
+            private void record(ByteBuffer window, int start, int end, long line) throws Exception {
+                end = trimLineEnd(window, start, end);
+                if (isBlank(window, start, end)) {
+                    return;
+                }
+                records.increment();
+                values.clear();
+                String problem = parser.parse(window, start, end, values);
+                if (problem != null) {
+                    reject(window, start, end, line, new Problems().append(problem));
+                    return;
+                }
+                // tryCreate() does the presence and type checks while
+                // converting, so only constraints are left to validate
+                Problems problems = new Problems();
+                Object obj;
+                try {
+                    obj = (Object) tryCreate.invokeExact(keysValues, problems);
+                } catch (RuntimeException ex) {
+                    problems.append(String.valueOf(ex.getMessage()));
+                    obj = null;
+                } catch (Exception | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new IllegalStateException(ex);
+                }
+                if (obj == null) {
+                    reject(window, start, end, line, problems);
+                    return;
+                }
+                ValidationResult result = checker.validateConstraints(declaringType, keysValues);
+                if (!result.isValid()) {
+                    reject(window, start, end, line, result.appendTo(new Problems()));
+                    return;
+                }
+                consumer.accept(paramsType.cast(obj));
+                accepted.increment();
+            }
+
+            private void reject(ByteBuffer window, int start, int end, long line, Problems problems) {
+                byte[] bytes = new byte[end - start];
+                ByteBuffer dup = window.duplicate();
+                dup.position(start);
+                dup.get(bytes);
+                rejected.increment();
+                rejects.reject(line, new String(bytes, UTF_8), problems);
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the bytes of one line into parameter names and values. Each worker
+ * thread has its own instance, which reuses its buffers from line to line.
+ *
+ * @author Tim Boudreau
+ */
+abstract class RecordParser {
+
+    byte[] bytes = new byte[512];
+
+    /**
+     * Parse a line.
+     *
+     * @param buffer The buffer containing the line
+     * @param start The first byte
+     * @param end The byte after the last, excluding any line terminator
+     * @param into The map to put values into
+     * @return null on success, or a description of what is wrong with the
+     * line
+     */
+    final String parse(ByteBuffer buffer, int start, int end, Map<String, Object> into) {
+        int length = end - start;
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        ByteBuffer dup = buffer.duplicate();
+        dup.position(start);
+        dup.get(bytes, 0, length);
+        return parse(bytes, length, into);
+    }
+
+    abstract String parse(byte[] bytes, int length, Map<String, Object> into);
+
+    static RecordParser create(Format format, String[] header) {
+        switch (format) {
+            case NDJSON:
+                return new Ndjson();
+            case CSV:
+                return new Csv(header);
+            default:
+                throw new AssertionError(format);
+        }
+    }
+
+    static final class Ndjson extends RecordParser {
+
+        private static final JsonFactory FACTORY = new JsonFactory();
+
+        @Override
+        String parse(byte[] bytes, int length, Map<String, Object> into) {
+            try (JsonParser parser = FACTORY.createParser(bytes, 0, length)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return "Not a JSON object";
+                }
+                String name;
+                while ((name = parser.nextFieldName()) != null) {
+                    JsonToken token = parser.nextToken();
+                    switch (token) {
+                        case VALUE_STRING:
+                            into.put(name, parser.getText());
+                            break;
+                        case VALUE_NUMBER_INT:
+                            into.put(name, parser.getNumberValue());
+                            break;
+                        case VALUE_NUMBER_FLOAT:
+                            into.put(name, parser.getDoubleValue());
+                            break;
+                        case VALUE_TRUE:
+                            into.put(name, Boolean.TRUE);
+                            break;
+                        case VALUE_FALSE:
+                            into.put(name, Boolean.FALSE);
+                            break;
+                        case VALUE_NULL:
+                            break;
+                        default:
+                            return name + " must be a string, number or boolean";
+                    }
+                }
+                if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                    return "Trailing content after JSON object";
+                }
+                return null;
+            } catch (JsonProcessingException ex) {
+                return ex.getOriginalMessage();
+            } catch (IOException ex) {
+                // Reading from a byte array
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    static final class Csv extends RecordParser {
+
+        private final String[] header;
+        private byte[] field = new byte[128];
+
+        Csv(String[] header) {
+            this.header = header;
+        }
+
+        /**
+         * Parse the header line.
+         *
+         * @return The column names, or null if the line is malformed
+         */
+        static String[] parseHeader(byte[] bytes, int length) {
+            List<String> result = new ArrayList<>();
+            String problem = new Csv(null).split(bytes, length, (ix, value, quoted) -> {
+                result.add(value);
+                return null;
+            });
+            return problem != null ? null : result.toArray(new String[result.size()]);
+        }
+
+        @Override
+        String parse(byte[] bytes, int length, Map<String, Object> into) {
+            return split(bytes, length, (ix, value, quoted) -> {
+                if (ix >= header.length) {
+                    return "Record has more than the " + header.length + " columns in the header";
+                }
+                if (quoted || !value.isEmpty()) {
+                    into.put(header[ix], value);
+                }
+                return null;
+            });
+        }
+
+        interface FieldConsumer {
+
+            String field(int index, String value, boolean quoted);
+        }
+
+        String split(byte[] bytes, int length, FieldConsumer consumer) {
+            int index = 0;
+            int pos = 0;
+            for (;;) {
+                String value;
+                boolean quoted = pos < length && bytes[pos] == '"';
+                if (quoted) {
+                    int fieldLength = 0;
+                    pos++;
+                    for (;;) {
+                        if (pos >= length) {
+                            return "Unterminated quoted field " + (index + 1);
+                        }
+                        byte b = bytes[pos++];
+                        if (b == '"') {
+                            if (pos < length && bytes[pos] == '"') {
+                                pos++;
+                            } else {
+                                break;
+                            }
+                        }
+                        if (fieldLength == field.length) {
+                            field = Arrays.copyOf(field, fieldLength * 2);
+                        }
+                        field[fieldLength++] = b;
+                    }
+                    if (pos < length && bytes[pos] != ',') {
+                        return "Unexpected characters after quoted field " + (index + 1);
+                    }
+                    value = new String(field, 0, fieldLength, UTF_8);
+                } else {
+                    int start = pos;
+                    while (pos < length && bytes[pos] != ',') {
+                        pos++;
+                    }
+                    value = new String(bytes, start, pos - start, UTF_8);
+                }
+                String problem = consumer.field(index++, value, quoted);
+                if (problem != null) {
+                    return problem;
+                }
+                if (pos >= length) {
+                    return null;
+                }
+                // Skip the comma
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.ingest;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds where records end: at each newline for NDJSON, and for CSV at each
+ * newline which is not inside a quoted field.
+ *
+ * @author Tim Boudreau
+ */
+final class RecordSplitter {
+
+    private final boolean csv;
+    private int lines;
+
+    RecordSplitter(Format format) {
+        this.csv = format == Format.CSV;
+    }
+
+    /**
+     * Find the end of the record which starts at <code>start</code>.
+     *
+     * @param buffer The buffer
+     * @param start The first byte of the record
+     * @param limit The end of the bytes to look at
+     * @return The index of the newline which ends the record, or -1 if it
+     * is not ended before the limit
+     */
+    int next(ByteBuffer buffer, int start, int limit) {
+        lines = 1;
+        if (!csv) {
+            for (int i = start; i < limit; i++) {
+                if (buffer.get(i) == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        boolean fieldStart = true;
+        boolean quoted = false;
+        for (int i = start; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (quoted) {
+                if (b == '"') {
+                    // A doubled quote is a quote; if the second one is past
+                    // the limit, so is the end of the record
+                    if (i + 1 < limit && buffer.get(i + 1) == '"') {
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (b == '\n') {
+                    lines++;
+                }
+            } else if (b == '\n') {
+                return i;
+            } else if (b == '"' && fieldStart) {
+                quoted = true;
+            }
+            fieldStart = !quoted && b == ',';
+        }
+        return -1;
+    }
+
+    /**
+     * Get the number of lines the record last found spans.
+     *
+     * @return The number of lines
+     */
+    int lines() {
+        return lines;
+    }
+}
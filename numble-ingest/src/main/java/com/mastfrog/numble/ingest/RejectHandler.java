@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.ingest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import org.netbeans.validation.api.Problem;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Side channel for records an Ingester could not parse, or which failed
+ * validation. Called from worker threads, so implementations must be
+ * thread-safe.
+ *
+ * @author Tim Boudreau
+ */
+public interface RejectHandler {
+
+    /**
+     * Called for each rejected record.
+     *
+     * @param line The 1-based line number of the record in the file
+     * @param record The text of the record
+     * @param problems Why it was rejected
+     */
+    void reject(long line, String record, Problems problems);
+
+    /**
+     * Create a handler which writes each reject to a writer as one line of
+     * the line number, the problems separated by semicolons, and the record,
+     * separated by tabs. Writes are synchronized on the writer; failing to
+     * write aborts the ingest.
+     *
+     * @param out A writer
+     * @return A handler
+     */
+    static RejectHandler writingTo(Writer out) {
+        return (line, record, problems) -> {
+            StringBuilder sb = new StringBuilder(record.length() + 80).append(line).append('\t');
+            boolean first = true;
+            for (Problem p : problems) {
+                if (!first) {
+                    sb.append("; ");
+                }
+                sb.append(p.getMessage());
+                first = false;
+            }
+            sb.append('\t').append(record).append('\n');
+            try {
+                synchronized (out) {
+                    out.write(sb.toString());
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.numble.ingest;
+
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.parameters.validation.ParamChecker;
+import java.io.IOException;
+import java.io.StringWriter;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+public class IngesterTest {
+
+    private static final int LINES = 5000;
+
+    @Test
+    public void testNdjson(ParamChecker checker) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            if (i % 13 == 0) {
+                sb.append("{\"name\":\"\",\"age\":").append(i).append("}\n");
+            } else if (i % 17 == 0) {
+                sb.append("{\"name\":\"p").append(i).append("\",\"age\":[1]}\r\n");
+            } else if (i % 19 == 0) {
+                sb.append("\n");
+            } else {
+                sb.append("{\"name\":\"p").append(i).append("\",\"age\":").append(i)
+                        .append(",\"score\":").append(i / 2D).append("}\n");
+            }
+        }
+        ingestAndCheck(checker, Format.NDJSON, sb.toString());
+    }
+
+    @Test
+    public void testCsv(ParamChecker checker) throws IOException {
+        StringBuilder sb = new StringBuilder("\uFEFFage,name,email,score\r\n");
+        for (int i = 0; i < LINES; i++) {
+            if (i % 13 == 0) {
+                sb.append(i).append(",\"\",,\n");
+            } else if (i % 17 == 0) {
+                sb.append("x,p").append(i).append(",,\r\n");
+            } else if (i % 19 == 0) {
+                sb.append("\r\n");
+            } else {
+                sb.append(i).append(",\"p").append(i).append("\"\"\",").append(i % 2 == 0 ? "a@b.com" : "")
+                        .append(',').append(i / 2D).append("\n");
+            }
+        }
+        ingestAndCheck(checker, Format.CSV, sb.toString());
+    }
+
+    private void ingestAndCheck(ParamChecker checker, Format format, String content) throws IOException {
+        Path file = Files.createTempFile("IngesterTest", "." + format.name().toLowerCase());
+        try {
+            Files.write(file, content.getBytes(UTF_8));
+            // Small windows and batches, so lines straddle window boundaries
+            Map<Integer, PersonParams> people = new ConcurrentHashMap<>();
+            Set<Long> rejectedLines = ConcurrentHashMap.newKeySet();
+            StringWriter rejectText = new StringWriter();
+            RejectHandler writer = RejectHandler.writingTo(rejectText);
+            IngestStats stats = new Ingester<>(PersonParams.class, checker, format)
+                    .threads(3).batchLines(7).windowSize(1000)
+                    .ingest(file, p -> assertNull(people.put(p.getAge(), p)), (line, record, problems) -> {
+                        assertTrue(problems.hasFatal());
+                        rejectedLines.add(line);
+                        writer.reject(line, record, problems);
+                    });
+            int offset = format == Format.CSV ? 2 : 1;
+            int expectedAccepted = 0;
+            int expectedRejected = 0;
+            for (int i = 0; i < LINES; i++) {
+                if (i % 13 == 0 || (i % 17 == 0)) {
+                    expectedRejected++;
+                    assertTrue("Line " + (i + offset) + " not rejected: " + rejectedLines,
+                            rejectedLines.contains((long) (i + offset)));
+                } else if (i % 19 != 0) {
+                    expectedAccepted++;
+                    PersonParams p = people.get(i);
+                    assertNotNull("Missing " + i, p);
+                    assertEquals("p" + i + (format == Format.CSV ? "\"" : ""), p.getName());
+                    assertEquals(i / 2D, p.getScore(), 0D);
+                    if (format == Format.CSV) {
+                        assertEquals(i % 2 == 0, p.getEmail().isPresent());
+                    }
+                }
+            }
+            assertEquals(stats.toString(), expectedAccepted, stats.accepted());
+            assertEquals(stats.toString(), expectedRejected, stats.rejected());
+            assertEquals(stats.toString(), expectedAccepted + expectedRejected, stats.records());
+            String text = "\n" + rejectText;
+            assertTrue(text, text.contains("\n" + offset + "\tname may not be empty or all whitespace\t"));
+            assertEquals(expectedRejected, text.split("\n").length - 1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCsvQuotedLineBreaks(ParamChecker checker) throws IOException {
+        String content = "name,age\n"
+                + "\"multi\nline\",1\n"
+                + "\"\",2\n"
+                + "\"a \"\"quoted\"\"\r\nvalue\",3\r\n"
+                + "x\"y,4\n"
+                + "\"b\",-5\n"
+                + "\"\n.\n\",6";
+        Path file = Files.createTempFile("IngesterTest", ".csv");
+        try {
+            Files.write(file, content.getBytes(UTF_8));
+            Map<Integer, String> names = new ConcurrentHashMap<>();
+            Map<Long, String> rejects = new ConcurrentHashMap<>();
+            // Records straddle windows and batches
+            IngestStats stats = new Ingester<>(PersonParams.class, checker, Format.CSV)
+                    .threads(2).batchLines(2).windowSize(32)
+                    .ingest(file, p -> names.put(p.getAge(), p.getName()),
+                            (line, record, problems) -> rejects.put(line, record));
+            assertEquals(stats.toString(), 6, stats.records());
+            assertEquals("multi\nline", names.get(1));
+            assertEquals("a \"quoted\"\r\nvalue", names.get(3));
+            assertEquals("x\"y", names.get(4));
+            assertEquals("\n.\n", names.get(6));
+            assertEquals(names.toString(), 4, names.size());
+            // Rejects are numbered by the line they start on
+            assertEquals(rejects.toString(), 2, rejects.size());
+            assertEquals("\"\",2", rejects.get(4L));
+            assertEquals("\"b\",-5", rejects.get(8L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testLineLongerThanWindow(ParamChecker checker) throws IOException {
+        Path file = Files.createTempFile("IngesterTest", ".ndjson");
+        try {
+            Files.write(file, "{\"name\":\"a long enough name\",\"age\":1}\n{}\n".getBytes(UTF_8));
+            new Ingester<>(PersonParams.class, checker, Format.NDJSON).windowSize(10)
+                    .ingest(file, p -> {
+                    }, (line, record, problems) -> {
+                    });
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
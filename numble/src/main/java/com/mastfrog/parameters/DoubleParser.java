@@ -0,0 +1,279 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import java.math.BigInteger;
+
+/**
+ * Strict decimal-to-double parser which does not allocate for the common case.
+ * Accepts <code>-?digits[.digits][(e|E)[+-]digits]</code> (either the integer
+ * or fraction digits may be absent, but not both), with no whitespace,
+ * <code>+</code> prefix, hexadecimal, NaN or Infinity. Values that can be
+ * computed exactly with one double operation use Clinger's fast path; the
+ * rest use the Eisel-Lemire algorithm, falling back to Double.parseDouble()
+ * only for inputs with more than 19 significant digits or the rare case that
+ * the 128-bit product cannot determine the rounding.
+ *
+ * @author Tim Boudreau
+ */
+final class DoubleParser {
+
+    private static final int MAX_DIGITS = 19;
+    private static final int SMALLEST_POWER_OF_TEN = -342;
+    private static final int LARGEST_POWER_OF_TEN = 308;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MANTISSA_BITS = 52;
+    private static final int INFINITE_POWER = 0x7FF;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private DoubleParser() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Parse a double.
+     *
+     * @param value The characters
+     * @return The value, which may be infinite if out of range, or NaN if the
+     * characters are not a well-formed number
+     */
+    static double parse(CharSequence value) {
+        int len = value.length();
+        if (len == 0) {
+            return Double.NaN;
+        }
+        int i = 0;
+        boolean negative = value.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean sawDigit = false;
+        boolean truncated = false;
+        for (; i < len; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            sawDigit = true;
+            if (digits == 0 && digit == 0) {
+                continue;
+            }
+            if (digits < MAX_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                digits++;
+            } else {
+                scale++;
+                truncated |= digit != 0;
+            }
+        }
+        if (i < len && value.charAt(i) == '.') {
+            for (i++; i < len; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                sawDigit = true;
+                if (digits == 0 && digit == 0) {
+                    scale--;
+                } else if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    digits++;
+                    scale--;
+                } else {
+                    truncated |= digit != 0;
+                }
+            }
+        }
+        if (!sawDigit) {
+            return Double.NaN;
+        }
+        if (i < len) {
+            char c = value.charAt(i++);
+            if ((c != 'e' && c != 'E') || i == len) {
+                return Double.NaN;
+            }
+            c = value.charAt(i);
+            boolean negativeExponent = c == '-';
+            if (negativeExponent || c == '+') {
+                if (++i == len) {
+                    return Double.NaN;
+                }
+            }
+            int exponent = 0;
+            for (; i < len; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return Double.NaN;
+                }
+                if (exponent < 100_000) {
+                    exponent = exponent * 10 + digit;
+                }
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0D : 0.0D;
+        }
+        double result = truncated ? Double.NaN : toDouble(mantissa, scale, negative);
+        if (Double.isNaN(result)) {
+            // Grammar is already known to be valid, so this cannot throw
+            result = Double.parseDouble(value.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Compute mantissa * 10^scale for an unsigned mantissa of at most 19
+     * digits, returning NaN if the result cannot be determined exactly.
+     */
+    static double toDouble(long mantissa, int scale, boolean negative) {
+        if (scale >= -22 && scale <= 22 && mantissa >= 0 && mantissa <= MAX_EXACT_MANTISSA) {
+            double result = mantissa;
+            result = scale < 0 ? result / POWERS_OF_TEN[-scale] : result * POWERS_OF_TEN[scale];
+            return negative ? -result : result;
+        }
+        if (scale < SMALLEST_POWER_OF_TEN) {
+            return negative ? -0.0D : 0.0D;
+        }
+        if (scale > LARGEST_POWER_OF_TEN) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return eiselLemire(mantissa, scale, negative);
+    }
+
+    private static double eiselLemire(long w, int q, boolean negative) {
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+        long[] powers = PowersOfFive.TABLE;
+        long factor = powers[index];
+        long high = multiplyHigh(w, factor);
+        long low = w * factor;
+        if ((high & 0x1FF) == 0x1FF) {
+            long secondHigh = multiplyHigh(w, powers[index + 1]);
+            long newLow = low + secondHigh;
+            if (Long.compareUnsigned(secondHigh, newLow) > 0) {
+                high++;
+            }
+            low = newLow;
+        }
+        if (low == -1L && (q < -27 || q > 55)) {
+            return Double.NaN;
+        }
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - MANTISSA_BITS - 3;
+        long mantissa = high >>> shift;
+        int power2 = (int) (((152_170L + 65_536L) * q) >> 16) + 63 + upperBit - lz + 1023;
+        if (power2 <= 0) {
+            // subnormal
+            if (-power2 + 1 >= 64) {
+                return negative ? -0.0D : 0.0D;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << MANTISSA_BITS) ? 0 : 1;
+            return assemble(mantissa, power2, negative);
+        }
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1) {
+            // exactly halfway - round to even
+            if ((mantissa << shift) == high) {
+                mantissa &= ~1L;
+            }
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << MANTISSA_BITS)) {
+            mantissa = 1L << MANTISSA_BITS;
+            power2++;
+        }
+        mantissa &= ~(1L << MANTISSA_BITS);
+        if (power2 >= INFINITE_POWER) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return assemble(mantissa, power2, negative);
+    }
+
+    private static double assemble(long mantissa, int power2, boolean negative) {
+        long bits = mantissa | ((long) power2 << MANTISSA_BITS);
+        if (negative) {
+            bits |= Long.MIN_VALUE;
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    static long multiplyHigh(long a, long b) {
+        // Unsigned; Math.multiplyHigh() is JDK 9+ and signed
+        long aLow = a & 0xFFFF_FFFFL;
+        long aHigh = a >>> 32;
+        long bLow = b & 0xFFFF_FFFFL;
+        long bHigh = b >>> 32;
+        long lowHigh = aLow * bHigh;
+        long highLow = aHigh * bLow;
+        long cross = ((aLow * bLow) >>> 32) + (highLow & 0xFFFF_FFFFL) + lowHigh;
+        return aHigh * bHigh + (highLow >>> 32) + (cross >>> 32);
+    }
+
+    /**
+     * 128-bit truncated approximations of 5^q for q from -342 to 308, as
+     * high/low pairs, computed on first use of the slow path.
+     */
+    static final class PowersOfFive {
+
+        static final long[] TABLE;
+
+        static {
+            long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+            BigInteger five = BigInteger.valueOf(5);
+            for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+                BigInteger value;
+                if (q < 0) {
+                    BigInteger power = five.pow(-q);
+                    int z = power.bitLength();
+                    int b = q >= -27 ? z + 127 : 2 * z + 128;
+                    value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                } else {
+                    value = five.pow(q);
+                }
+                int excess = value.bitLength() - 128;
+                value = excess > 0 ? value.shiftRight(excess) : value.shiftLeft(-excess);
+                int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+                table[index] = value.shiftRight(64).longValue();
+                table[index + 1] = value.longValue();
+            }
+            TABLE = table;
+        }
+
+        private PowersOfFive() {
+            throw new AssertionError();
+        }
+    }
+}
@@ -42,6 +42,145 @@ public interface KeysValues extends Iterable<Map.Entry<String, String>> {
 
     Set<String> keySet();
 
+    /**
+     * Determine if a value is present for a key.
+     *
+     * @param key The key
+     * @return true if it has a value
+     */
+    default boolean has(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Get a value without converting it to a string, for implementations
+     * which hold typed values, such as a map read from JSON.
+     *
+     * @param key The key
+     * @return The value, or null
+     */
+    default Object getObject(String key) {
+        return get(key);
+    }
+
+    /**
+     * Get a value as characters, which implementations backed by a request
+     * may return as a view over it rather than a new String. The result
+     * should not be retained beyond the request.
+     *
+     * @param key The key
+     * @return The characters, or null
+     */
+    default CharSequence getCharSequence(String key) {
+        return get(key);
+    }
+
+    /**
+     * Get a value as an int, passing through values which already are one.
+     *
+     * @param key The key
+     * @param ifMissing The value to return if absent
+     * @return A value
+     * @throws NumberFormatException if present and not an int
+     */
+    default int getInt(String key, int ifMissing) {
+        String val = get(key);
+        return val == null ? ifMissing : Integer.parseInt(val);
+    }
+
+    /**
+     * Get a value as an int, passing through values which already are one.
+     *
+     * @param key The key
+     * @return A value
+     * @throws NumberFormatException if absent or not an int
+     */
+    default int getInt(String key) {
+        if (!has(key)) {
+            throw new NumberFormatException("Missing " + key);
+        }
+        return getInt(key, 0);
+    }
+
+    /**
+     * Get a value as a long, passing through values which already are one.
+     *
+     * @param key The key
+     * @param ifMissing The value to return if absent
+     * @return A value
+     * @throws NumberFormatException if present and not a long
+     */
+    default long getLong(String key, long ifMissing) {
+        String val = get(key);
+        return val == null ? ifMissing : Long.parseLong(val);
+    }
+
+    /**
+     * Get a value as a long, passing through values which already are one.
+     *
+     * @param key The key
+     * @return A value
+     * @throws NumberFormatException if absent or not a long
+     */
+    default long getLong(String key) {
+        if (!has(key)) {
+            throw new NumberFormatException("Missing " + key);
+        }
+        return getLong(key, 0L);
+    }
+
+    /**
+     * Get a value as a double, passing through numbers.
+     *
+     * @param key The key
+     * @param ifMissing The value to return if absent
+     * @return A value
+     * @throws NumberFormatException if present and not a number
+     */
+    default double getDouble(String key, double ifMissing) {
+        String val = get(key);
+        return val == null ? ifMissing : TypeValidation.parseDouble(val);
+    }
+
+    /**
+     * Get a value as a double, passing through numbers.
+     *
+     * @param key The key
+     * @return A value
+     * @throws NumberFormatException if absent or not a number
+     */
+    default double getDouble(String key) {
+        if (!has(key)) {
+            throw new NumberFormatException("Missing " + key);
+        }
+        return getDouble(key, 0D);
+    }
+
+    /**
+     * Get a value as a boolean, with the semantics of Boolean.parseBoolean()
+     * for strings, passing through Booleans.
+     *
+     * @param key The key
+     * @param ifMissing The value to return if absent
+     * @return A value
+     */
+    default boolean getBoolean(String key, boolean ifMissing) {
+        String val = get(key);
+        return val == null ? ifMissing : Boolean.parseBoolean(val);
+    }
+
+    /**
+     * Every key with its value as getObject() would return it, for callers
+     * which make one pass over all parameters instead of looking each one
+     * up. Values may be null, meaning absent, and CharSequence values should
+     * not be retained beyond the request.
+     *
+     * @return The entries
+     */
+    default Iterable<? extends Map.Entry<String, ?>> objectEntries() {
+        return this;
+    }
+
     public static KeysValues ofMap(Map<String,? extends Object> map) {
         return new MapAdapter(notNull("map", map));
     }
@@ -68,11 +207,71 @@ public interface KeysValues extends Iterable<Map.Entry<String, String>> {
             }
         }
 
+        @Override
+        public boolean has(String key) {
+            return map.get(key) != null;
+        }
+
+        @Override
+        public Object getObject(String key) {
+            Preconditions.checkNotNull(key);
+            return map.get(key);
+        }
+
+        @Override
+        public int getInt(String key, int ifMissing) {
+            Object result = getObject(key);
+            if (result == null) {
+                return ifMissing;
+            } else if (TypeValidation.isTypedValue(Types.INTEGER, result)) {
+                return ((Number) result).intValue();
+            }
+            return Integer.parseInt(result.toString());
+        }
+
+        @Override
+        public long getLong(String key, long ifMissing) {
+            Object result = getObject(key);
+            if (result == null) {
+                return ifMissing;
+            } else if (TypeValidation.isTypedValue(Types.LONG, result)) {
+                return ((Number) result).longValue();
+            }
+            return Long.parseLong(result.toString());
+        }
+
+        @Override
+        public double getDouble(String key, double ifMissing) {
+            Object result = getObject(key);
+            if (result == null) {
+                return ifMissing;
+            } else if (result instanceof Number) {
+                return ((Number) result).doubleValue();
+            }
+            return TypeValidation.parseDouble(result.toString());
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean ifMissing) {
+            Object result = getObject(key);
+            if (result == null) {
+                return ifMissing;
+            } else if (result instanceof Boolean) {
+                return (Boolean) result;
+            }
+            return Boolean.parseBoolean(result.toString());
+        }
+
         @Override
         public Set<String> keySet() {
             return map.keySet();
         }
 
+        @Override
+        public Iterable<? extends Map.Entry<String, ?>> objectEntries() {
+            return map.entrySet();
+        }
+
         @Override
         @SuppressWarnings("unchecked")
         public Iterator<Map.Entry<String, String>> iterator() {
@@ -95,4 +95,26 @@ public @interface Param {
      * @return
      */
     String example() default "";
+
+    /**
+     * If true, the outcome of running this parameter's constraints and
+     * custom validators on a value is remembered, in a bounded cache shared
+     * by all threads, and reused when the same value is seen again. Worth
+     * using for expensive checks, such as host names, URLs or email
+     * addresses, on values that repeat. The validators must give the same
+     * answer for the same value every time.
+     *
+     * @return Whether to cache validation outcomes
+     */
+    boolean cacheValidation() default false;
+
+    /**
+     * The maximum number of distinct values whose validation outcome is
+     * cached, if <code>cacheValidation</code> is true. Eviction is
+     * approximate (second-chance): a value used since the cache last
+     * considered it is kept, and the first one not used since is evicted.
+     *
+     * @return The cache size
+     */
+    int validationCacheSize() default 4096;
 }
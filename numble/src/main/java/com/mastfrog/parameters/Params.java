@@ -79,8 +79,45 @@ public @interface Params {
     boolean generateValidationCode() default true;
     
     /**
-     * If true, the generated class will have a <code>toJSON()</code> method
+     * If true, the generated class will have a <code>toJSON()</code> method,
+     * and <code>writeJson()</code> methods which write fields directly to a
+     * JsonGenerator, OutputStream or (if Netty is on the classpath) ByteBuf
      * @return 
      */
     boolean generateToJSON() default false;
+
+    /**
+     * If true, generate a Jackson module, <code>XxxParamsJsonModule</code>,
+     * containing a serializer and deserializer which read and write fields
+     * directly with a switch on the field name instead of using reflection.
+     * The generated class is annotated to use them, so any ObjectMapper
+     * picks them up without registering the module. Requires jackson-databind.
+     *
+     * @return Whether or not to generate the module
+     */
+    boolean generateJsonCodec() default false;
+
+    /**
+     * If true, validation stops at the first fatal problem instead of
+     * reporting every one: ParamChecker.check() reports only that problem,
+     * and the generated <code>validate()</code> method returns as soon as
+     * one is found. Presence and type checks run before constraints and
+     * custom validators, so garbage input is rejected cheaply.
+     *
+     * @return Whether to fail fast
+     */
+    boolean failFast() default false;
+
+    /**
+     * If true, the generated class stores optional numbers as primitives
+     * plus a bit in a presence mask, packs booleans into the same mask,
+     * holds optional strings as nullable fields, and only allocates the map
+     * for unlisted parameters when there is one - for instances kept in
+     * large numbers, such as in caches. Getters for optional numbers then
+     * return OptionalInt, OptionalLong or OptionalDouble, and those for
+     * other optional values create an Optional when called.
+     *
+     * @return Whether to use the compact layout
+     */
+    boolean compactLayout() default false;
 }
@@ -24,10 +24,8 @@
 
 package com.mastfrog.parameters;
 
-import java.util.regex.Pattern;
 import org.netbeans.validation.api.Problems;
 import org.netbeans.validation.api.Validator;
-import org.netbeans.validation.api.ValidatorUtils;
 
 /**
  *
@@ -35,6 +33,11 @@ import org.netbeans.validation.api.ValidatorUtils;
  */
 public class TypeValidation {
 
+    private static final int VALID = 0;
+    private static final int INVALID = 1;
+    private static final int OUT_OF_RANGE = 2;
+    private static final int NEGATIVE = 3;
+
     private TypeValidation() {
 
     }
@@ -44,6 +47,7 @@ public class TypeValidation {
             case DOUBLE:
                 return NUMBER_VALIDATOR;
             case NON_NEGATIVE_LONG:
+                return NON_NEGATIVE_LONG_VALIDATOR;
             case NON_NEGATIVE_INTEGER:
                 return NON_NEGATIVE_INTEGER_VALIDATOR;
             case LONG:
@@ -60,6 +64,377 @@ public class TypeValidation {
                 throw new AssertionError(type);
         }
     }
+
+    /**
+     * Determine if a value which is not a string - say, an Integer read from
+     * JSON - already satisfies the passed type, so it can be used without
+     * converting it to a string and parsing it.
+     *
+     * @param type The type
+     * @param value A value, possibly null
+     * @return true if the value is a Number or Boolean which needs no checking
+     */
+    public static boolean isTypedValue(Types type, Object value) {
+        switch (type) {
+            case BOOLEAN:
+                return value instanceof Boolean;
+            case DOUBLE:
+                if (value instanceof Double || value instanceof Float) {
+                    double d = ((Number) value).doubleValue();
+                    return !Double.isNaN(d) && !Double.isInfinite(d);
+                }
+                return isIntegral(value);
+            case INTEGER:
+                return isIntegral(value) && fitsInt((Number) value);
+            case NON_NEGATIVE_INTEGER:
+                return isIntegral(value) && fitsInt((Number) value) && ((Number) value).intValue() >= 0;
+            case LONG:
+                return isIntegral(value);
+            case NON_NEGATIVE_LONG:
+                return isIntegral(value) && ((Number) value).longValue() >= 0;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean fitsInt(Number value) {
+        long l = value.longValue();
+        return l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Determine if the passed characters are a decimal integer which fits in
+     * an int, without allocating or throwing.
+     *
+     * @param value The characters
+     * @return true if Integer.parseInt() will succeed on them
+     */
+    public static boolean isInteger(CharSequence value) {
+        return scanIntegral(value, Integer.MIN_VALUE, Integer.MAX_VALUE) == VALID;
+    }
+
+    /**
+     * Determine if the passed characters are a decimal integer which fits in
+     * a long, without allocating or throwing.
+     *
+     * @param value The characters
+     * @return true if Long.parseLong() will succeed on them
+     */
+    public static boolean isLong(CharSequence value) {
+        return scanIntegral(value, Long.MIN_VALUE, Long.MAX_VALUE) == VALID;
+    }
+
+    /**
+     * Determine if the passed characters are a decimal integer between zero
+     * and Integer.MAX_VALUE, with no leading minus sign.
+     *
+     * @param value The characters
+     * @return true if they are a non-negative int
+     */
+    public static boolean isNonNegativeInteger(CharSequence value) {
+        return scanIntegral(value, 0, Integer.MAX_VALUE) == VALID;
+    }
+
+    /**
+     * Determine if the passed characters are a decimal integer between zero
+     * and Long.MAX_VALUE, with no leading minus sign.
+     *
+     * @param value The characters
+     * @return true if they are a non-negative long
+     */
+    public static boolean isNonNegativeLong(CharSequence value) {
+        return scanIntegral(value, 0, Long.MAX_VALUE) == VALID;
+    }
+
+    /**
+     * Determine if the passed characters are <code>true</code> or
+     * <code>false</code>, ignoring case.
+     *
+     * @param value The characters
+     * @return true if they are a boolean
+     */
+    public static boolean isBoolean(CharSequence value) {
+        return matchesIgnoreCase(value, "true") || matchesIgnoreCase(value, "false");
+    }
+
+    /**
+     * Determine if the passed characters are a finite decimal number, with
+     * an optional exponent, using the same strict grammar as
+     * <code>parseDouble()</code>.
+     *
+     * @param value The characters
+     * @return true if they are a number which fits in a double
+     */
+    public static boolean isDouble(CharSequence value) {
+        double result = DoubleParser.parse(value);
+        return !Double.isNaN(result) && !Double.isInfinite(result);
+    }
+
+    /**
+     * Parse a double from the passed characters without allocating, in the
+     * form <code>-?digits[.digits][(e|E)[+-]digits]</code>.
+     *
+     * @param value The characters
+     * @return A double, or Double.NaN if the characters are not well-formed
+     */
+    public static double scanDouble(CharSequence value) {
+        return DoubleParser.parse(value);
+    }
+
+    /**
+     * Parse a double, with the same strict grammar as
+     * <code>scanDouble()</code>.
+     *
+     * @param value The characters
+     * @return A double
+     * @throws NumberFormatException if the characters are not well-formed
+     */
+    public static double parseDouble(CharSequence value) {
+        double result = DoubleParser.parse(value);
+        if (Double.isNaN(result)) {
+            throw new NumberFormatException("Not a number: '" + value + "'");
+        }
+        return result;
+    }
+
+    /**
+     * Parse an int from the passed characters without converting them to a
+     * string, with the same grammar as <code>isInteger()</code>.
+     *
+     * @param value The characters
+     * @return An int
+     * @throws NumberFormatException if they are not an int
+     */
+    public static int parseInt(CharSequence value) {
+        return (int) parseIntegral(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parse a long from the passed characters without converting them to a
+     * string, with the same grammar as <code>isLong()</code>.
+     *
+     * @param value The characters
+     * @return A long
+     * @throws NumberFormatException if they are not a long
+     */
+    public static long parseLong(CharSequence value) {
+        return parseIntegral(value, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Parse a boolean with the semantics of Boolean.parseBoolean() - anything
+     * but <code>true</code>, ignoring case, is false.
+     *
+     * @param value The characters, possibly null
+     * @return A boolean
+     */
+    public static boolean parseBoolean(CharSequence value) {
+        return value != null && matchesIgnoreCase(value, "true");
+    }
+
+    /**
+     * Convert a non-null value, as returned by KeysValues.getObject(), to an
+     * int, with the semantics of KeysValues.getInt().
+     *
+     * @param value A value
+     * @return An int
+     * @throws NumberFormatException if it is not an int
+     */
+    public static int intValue(Object value) {
+        if (value instanceof String) {
+            return Integer.parseInt((String) value);
+        } else if (isTypedValue(Types.INTEGER, value)) {
+            return ((Number) value).intValue();
+        }
+        return value instanceof CharSequence ? parseInt((CharSequence) value) : Integer.parseInt(value.toString());
+    }
+
+    /**
+     * Convert a non-null value, as returned by KeysValues.getObject(), to a
+     * long, with the semantics of KeysValues.getLong().
+     *
+     * @param value A value
+     * @return A long
+     * @throws NumberFormatException if it is not a long
+     */
+    public static long longValue(Object value) {
+        if (value instanceof String) {
+            return Long.parseLong((String) value);
+        } else if (isTypedValue(Types.LONG, value)) {
+            return ((Number) value).longValue();
+        }
+        return value instanceof CharSequence ? parseLong((CharSequence) value) : Long.parseLong(value.toString());
+    }
+
+    /**
+     * Convert a non-null value, as returned by KeysValues.getObject(), to a
+     * double, with the semantics of KeysValues.getDouble().
+     *
+     * @param value A value
+     * @return A double
+     * @throws NumberFormatException if it is not a number
+     */
+    public static double doubleValue(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return parseDouble(value instanceof CharSequence ? (CharSequence) value : value.toString());
+    }
+
+    /**
+     * Convert a non-null value, as returned by KeysValues.getObject(), to a
+     * boolean, with the semantics of KeysValues.getBoolean().
+     *
+     * @param value A value
+     * @return A boolean
+     */
+    public static boolean booleanValue(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return parseBoolean(value instanceof CharSequence ? (CharSequence) value : value.toString());
+    }
+
+    /**
+     * Check a value which may be a string, some other CharSequence, or an
+     * already-typed Number or Boolean, against a type, without creating a
+     * string unless the value is invalid.
+     *
+     * @param type The type
+     * @param problems Problems to add to
+     * @param key The parameter name
+     * @param value A non-null value
+     */
+    public static void check(Types type, Problems problems, String key, Object value) {
+        if (!isValid(type, value)) {
+            validator(type).validate(problems, key, value.toString());
+        }
+    }
+
+    /**
+     * Determine if a value which may be a string, some other CharSequence, or
+     * an already-typed Number or Boolean, satisfies a type, without creating a
+     * string or a message.
+     *
+     * @param type The type
+     * @param value A non-null value
+     * @return true if check() would not report a problem for it
+     */
+    public static boolean isValid(Types type, Object value) {
+        if (isTypedValue(type, value)) {
+            return true;
+        }
+        CharSequence seq = value instanceof CharSequence
+                ? (CharSequence) value : value.toString();
+        switch (type) {
+            case STRING:
+                return true;
+            case NON_EMPTY_STRING:
+                return !isBlank(seq);
+            case BOOLEAN:
+                return isBoolean(seq);
+            case DOUBLE:
+                return isDouble(seq);
+            case INTEGER:
+                return isInteger(seq);
+            case LONG:
+                return isLong(seq);
+            case NON_NEGATIVE_INTEGER:
+                return isNonNegativeInteger(seq);
+            case NON_NEGATIVE_LONG:
+                return isNonNegativeLong(seq);
+            default:
+                throw new AssertionError(type);
+        }
+    }
+
+    private static boolean isBlank(CharSequence value) {
+        // Same test as String.trim().isEmpty()
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseIntegral(CharSequence value, long min, long max) {
+        if (scanIntegral(value, min, max) != VALID) {
+            throw new NumberFormatException("For input string: \"" + value + "\"");
+        }
+        int len = value.length();
+        boolean negative = value.charAt(0) == '-';
+        long result = 0;
+        for (int i = negative ? 1 : 0; i < len; i++) {
+            result = result * 10 - (value.charAt(i) - '0');
+        }
+        return negative ? result : -result;
+    }
+
+    static boolean matchesIgnoreCase(CharSequence value, String lowerCase) {
+        int len = lowerCase.length();
+        if (value.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (Character.toLowerCase(value.charAt(i)) != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Single pass over the characters, accumulating negatively (as
+     * Long.parseLong() does) so that the full range including the minimum
+     * value can be checked without overflowing.
+     */
+    private static int scanIntegral(CharSequence value, long min, long max) {
+        int len = value.length();
+        if (len == 0) {
+            return INVALID;
+        }
+        int start = 0;
+        boolean negative = value.charAt(0) == '-';
+        if (negative) {
+            if (len == 1) {
+                return INVALID;
+            }
+            start = 1;
+        }
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long result = 0;
+        boolean overflow = false;
+        for (int i = start; i < len; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            if (overflow) {
+                continue;
+            }
+            if (result < multmin) {
+                overflow = true;
+                continue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                overflow = true;
+                continue;
+            }
+            result -= digit;
+        }
+        if (negative && min == 0) {
+            return NEGATIVE;
+        }
+        return overflow ? OUT_OF_RANGE : VALID;
+    }
     private static final Validator<String> NUMBER_VALIDATOR = new NumberValidator();
 
     static abstract class AbstractValidator implements Validator<String> {
@@ -83,87 +458,60 @@ public class TypeValidation {
 
     private static final class NumberValidator extends AbstractValidator {
 
-        private static final Pattern PATTERN = Pattern.compile("^[\\d-][\\d\\.]{0,36}$");
-
         @Override
         public String validate(String key, String value) {
             if (value == null) {
                 return null;
             }
-            if (PATTERN.matcher(value).matches()) {
-                return null;
+            double result = DoubleParser.parse(value);
+            if (Double.isNaN(result)) {
+                return key + " is not a number: '" + value + "'";
+            } else if (Double.isInfinite(result)) {
+                return key + " is too large for a double: '" + value + "'";
             }
-            return key + " is not a number: '" + value + "'";
+            return null;
         }
     }
 
-    private static final Validator<String> INTEGER_VALIDATOR = new IntegerValidator();
-
-    private static final class IntegerValidator extends AbstractValidator {
+    private static final Validator<String> INTEGER_VALIDATOR
+            = new IntegralValidator(Integer.MIN_VALUE, Integer.MAX_VALUE, "an integer", "a 32-bit integer");
 
-        private static final Pattern PATTERN = Pattern.compile("^[\\d-]\\d{0,36}$");
+    private static final Validator<String> LONG_VALIDATOR
+            = new IntegralValidator(Long.MIN_VALUE, Long.MAX_VALUE, "an integer", "a 64-bit integer");
 
-        @Override
-        public String validate(String key, String value) {
-            if (value == null) {
-                return null;
-            }
-            if (PATTERN.matcher(value).matches()) {
-                return null;
-            }
-            try {
-                long val = Long.parseLong(value);
-                if (val > Integer.MAX_VALUE) {
-                    return "Value is greater than Integer.MAX_VALUE: " + val;
-                } else if (val < Integer.MIN_VALUE) {
-                    return "Value is less than Integer.MIN_VALUE: " + val;
-                }
-            } catch (NumberFormatException e) {
-                return "Not a valid number: " + value;
-            }
-            return key + " is not an integer: '" + value + "'";
-        }
-    }
+    private static final Validator<String> NON_NEGATIVE_INTEGER_VALIDATOR
+            = new IntegralValidator(0, Integer.MAX_VALUE, "a non-negative integer", "a 32-bit integer");
 
-    private static final Validator<String> LONG_VALIDATOR = new LongValidator();
+    private static final Validator<String> NON_NEGATIVE_LONG_VALIDATOR
+            = new IntegralValidator(0, Long.MAX_VALUE, "a non-negative integer", "a 64-bit integer");
 
-    private static final class LongValidator extends AbstractValidator {
+    private static final class IntegralValidator extends AbstractValidator {
 
-        private static final Pattern PATTERN = Pattern.compile("^[\\d-]\\d{0,36}$");
+        private final long min;
+        private final long max;
+        private final String description;
+        private final String rangeDescription;
 
-        @Override
-        public String validate(String key, String value) {
-            if (value == null) {
-                return null;
-            }
-            if (PATTERN.matcher(value).matches()) {
-                return null;
-            }
-            try {
-                long val = Long.parseLong(value);
-            } catch (NumberFormatException e) {
-                return "Not a valid 64-bit integer: " + value;
-            }
-            return key + " is not an integer: '" + value + "'";
+        IntegralValidator(long min, long max, String description, String rangeDescription) {
+            this.min = min;
+            this.max = max;
+            this.description = description;
+            this.rangeDescription = rangeDescription;
         }
-    }
-
-    private static final Validator<String> NON_NEGATIVE_INTEGER_VALIDATOR
-            = ValidatorUtils.merge(INTEGER_VALIDATOR, new NonNegativeIntegerValidator());
-
-    private static final class NonNegativeIntegerValidator extends AbstractValidator {
-
-        private static final Pattern PATTERN = Pattern.compile("^\\d{1,36}$");
 
         @Override
         public String validate(String key, String value) {
             if (value == null) {
                 return null;
             }
-            if (PATTERN.matcher(value).matches()) {
-                return null;
+            switch (scanIntegral(value, min, max)) {
+                case VALID:
+                    return null;
+                case OUT_OF_RANGE:
+                    return key + " is too large for " + rangeDescription + ": '" + value + "'";
+                default:
+                    return key + " is not " + description + ": '" + value + "'";
             }
-            return key + " is not a non-negative integer: '" + value + "'";
         }
     }
 
@@ -176,14 +524,13 @@ public class TypeValidation {
             if (value == null) {
                 return null;
             }
-            if ("TRUE".equalsIgnoreCase(value) || "FALSE".equalsIgnoreCase(value)) {
+            if (isBoolean(value)) {
                 return null;
             }
             return key + " is not a boolean value: '" + value + "'";
         }
 
     }
-
     private static final Validator<String> NON_EMPTY_VALIDATOR = new NonEmptyValidator();
 
     private static final class NonEmptyValidator extends AbstractValidator {
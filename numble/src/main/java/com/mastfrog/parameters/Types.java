@@ -97,14 +97,14 @@ public enum Types {
         switch (this) {
             case INTEGER:
             case NON_NEGATIVE_INTEGER:
-                return "Integer.parseInt";
+                return "TypeValidation.parseInt";
             case BOOLEAN:
-                return "Boolean.parseBoolean";
+                return "TypeValidation.parseBoolean";
             case LONG:
             case NON_NEGATIVE_LONG:
-                return "Long.parseLong";
+                return "TypeValidation.parseLong";
             case DOUBLE:
-                return "Double.parseDouble";
+                return "TypeValidation.parseDouble";
             default:
                 return "to" + typeName(false);
         }
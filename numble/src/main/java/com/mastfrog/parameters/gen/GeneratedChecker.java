@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.mastfrog.parameters.gen;
+
+import com.mastfrog.parameters.KeysValues;
+import com.mastfrog.parameters.validation.ValidationCache;
+import com.mastfrog.parameters.validation.ValidationSink;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Interface implemented by the <code>XxxParamsChecker</code> classes generated
+ * alongside each <code>XxxParams</code> class, which contain the checks
+ * described by the &#064;Param annotations as straight-line code. When one is
+ * present, ParamChecker delegates to it rather than interpreting the
+ * annotations at runtime.
+ *
+ * @author Tim Boudreau
+ */
+public interface GeneratedChecker {
+
+    /**
+     * Check that required parameters are present, and that those which are
+     * present pass type checks, constraints and custom validators. Checking for
+     * unknown parameters is left to the caller.
+     *
+     * @param params The parameters
+     * @param problems A collection of problems to add to
+     */
+    void check(KeysValues params, Problems problems);
+
+    /**
+     * Perform the same checks as <code>check(KeysValues, Problems)</code>,
+     * reporting failures to a sink by parameter index instead of formatting
+     * messages for them.
+     *
+     * @param params The parameters
+     * @param sink The sink
+     * @return false if the sink asked to stop
+     */
+    boolean check(KeysValues params, ValidationSink sink);
+
+    /**
+     * Run only the constraints and custom validators, on parameters already
+     * known to be present and of the right type, reporting failures to a
+     * sink. By default, performs the full check.
+     *
+     * @param params The parameters
+     * @param sink The sink
+     * @return false if the sink asked to stop
+     */
+    default boolean checkConstraints(KeysValues params, ValidationSink sink) {
+        return check(params, sink);
+    }
+
+    /**
+     * Check a single value, for callers which encounter parameters one at a
+     * time rather than holding them in a map. A null value is not passed.
+     *
+     * @param key The parameter name
+     * @param value The value
+     * @param problems A collection of problems to add to
+     * @return false if the key is not a declared parameter
+     */
+    boolean checkValue(String key, String value, Problems problems);
+
+    /**
+     * Get the cache of validation outcomes for a parameter marked
+     * <code>cacheValidation</code>.
+     *
+     * @param key The parameter name
+     * @return The cache, or null if the parameter does not have one
+     */
+    default ValidationCache validationCache(String key) {
+        return null;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A generated parameters class was constructed from KeysValues. Emitted by
+ * the generated constructors through ConstructionEvents, which begins an
+ * instance before the parameters are read and commits it after; a
+ * constructor which throws emits nothing.
+ *
+ * @author Tim Boudreau
+ */
+@Name("com.mastfrog.numble.Construction")
+@Label("Parameters Construction")
+@Description("A generated parameters class was constructed from request parameters")
+@Category({"Numble", "Validation"})
+@StackTrace(false)
+final class ConstructionEvent extends Event {
+
+    @Label("Declaring Type")
+    Class<?> declaringType;
+
+    /**
+     * End the event and commit it, if a recording wants it.
+     *
+     * @param declaringType The type with the &#064;Params annotation
+     */
+    void constructed(Class<?> declaringType) {
+        end();
+        if (shouldCommit()) {
+            this.declaringType = declaringType;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * Entry point the generated parameters classes emit
+ * <code>com.mastfrog.numble.Construction</code> events through. Nothing
+ * here refers to jdk.jfr outside a nested class which is only loaded if
+ * jdk.jfr is present, so generated classes still load on runtimes without
+ * it, and no event is allocated unless a recording has it enabled. Not for
+ * use by other code.
+ *
+ * @author Tim Boudreau
+ */
+public final class ConstructionEvents {
+
+    private static final boolean JFR_PRESENT = jfrPresent();
+
+    private ConstructionEvents() {
+        throw new AssertionError();
+    }
+
+    private static boolean jfrPresent() {
+        try {
+            Class.forName("jdk.jfr.EventType");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Begin a construction event, if a recording wants one.
+     *
+     * @return The event, to pass to <code>constructed()</code>, or null
+     */
+    public static Object begin() {
+        return JFR_PRESENT ? Jfr.begin() : null;
+    }
+
+    /**
+     * End and commit an event returned by <code>begin()</code>.
+     *
+     * @param event The event, or null
+     * @param declaringType The type with the &#064;Params annotation
+     */
+    public static void constructed(Object event, Class<?> declaringType) {
+        if (event != null) {
+            Jfr.constructed(event, declaringType);
+        }
+    }
+
+    private static final class Jfr {
+
+        private static final EventType CONSTRUCTION = EventType.getEventType(ConstructionEvent.class);
+
+        static Object begin() {
+            if (!CONSTRUCTION.isEnabled()) {
+                return null;
+            }
+            ConstructionEvent event = new ConstructionEvent();
+            event.begin();
+            return event;
+        }
+
+        static void constructed(Object event, Class<?> declaringType) {
+            ((ConstructionEvent) event).constructed(declaringType);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.jfr;
+
+import com.mastfrog.parameters.Param;
+import com.mastfrog.parameters.Params;
+import com.mastfrog.parameters.validation.FailureKind;
+import com.mastfrog.parameters.validation.ValidationMetrics;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.EventType;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.netbeans.validation.api.Validator;
+import org.netbeans.validation.api.builtin.stringvalidation.StringValidators;
+
+/**
+ * ValidationMetrics which emits JDK Flight Recorder events, so validation
+ * stalls can be lined up with GC and allocation in a recording:
+ * <ul>
+ * <li><code>com.mastfrog.numble.Validation</code> for each check of a set
+ * of parameters or a request body</li>
+ * <li><code>com.mastfrog.numble.SlowValidator</code> when the validators of
+ * one parameter take longer than the event's threshold - 10ms unless the
+ * recording sets another</li>
+ * <li><code>com.mastfrog.numble.Binding</code> when a request body is
+ * deserialized into a generated class and validated</li>
+ * </ul>
+ * Each event is begun when <code>checking()</code>,
+ * <code>validating()</code> or <code>binding()</code> is called, before the
+ * work starts, and ended and committed when it finishes, so its start time
+ * and duration are those of the work. Events are only created when a
+ * recording has them enabled, and isEnabled() is only true while one does
+ * (or if there is a delegate), so validation is not timed otherwise. Calls
+ * are also passed to a delegate, such as RecordingValidationMetrics, if one
+ * is supplied.
+ * <p>
+ * The generated parameters classes emit
+ * <code>com.mastfrog.numble.Construction</code> events themselves when
+ * constructed from KeysValues, since they are constructed from application
+ * code without an injector to find metrics with; they go through
+ * ConstructionEvents, so still load on runtimes without jdk.jfr.
+ *
+ * @author Tim Boudreau
+ */
+@Singleton
+public class JfrValidationMetrics implements ValidationMetrics {
+
+    private static final EventType VALIDATION = EventType.getEventType(ValidationEvent.class);
+    private static final EventType SLOW_VALIDATOR = EventType.getEventType(SlowValidatorEvent.class);
+    private static final EventType BINDING = EventType.getEventType(BindingEvent.class);
+    private final ValidationMetrics delegate;
+    private final ClassValue<Map<String, String>> validatorNames = new ClassValue<Map<String, String>>() {
+        @Override
+        protected Map<String, String> computeValue(Class<?> type) {
+            return validatorNames(type);
+        }
+    };
+
+    /**
+     * Create an instance with no delegate.
+     */
+    @Inject
+    public JfrValidationMetrics() {
+        this(ValidationMetrics.NONE);
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param delegate Metrics to also pass everything to
+     */
+    public JfrValidationMetrics(ValidationMetrics delegate) {
+        this.delegate = delegate.isEnabled() ? delegate : null;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate != null || VALIDATION.isEnabled()
+                || SLOW_VALIDATOR.isEnabled() || BINDING.isEnabled();
+    }
+
+    @Override
+    public Object checking(Class<?> paramsType) {
+        ValidationEvent event = new ValidationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Called without a span, the event has no duration.
+     */
+    @Override
+    public void checked(Class<?> paramsType, boolean valid, long nanos) {
+        checked(checking(paramsType), paramsType, valid, nanos);
+    }
+
+    @Override
+    public void checked(Object span, Class<?> paramsType, boolean valid, long nanos) {
+        if (span instanceof ValidationEvent) {
+            ValidationEvent event = (ValidationEvent) span;
+            event.end();
+            if (event.shouldCommit()) {
+                event.declaringType = paramsType;
+                event.valid = valid;
+                event.commit();
+            }
+        }
+        if (delegate != null) {
+            delegate.checked(paramsType, valid, nanos);
+        }
+    }
+
+    @Override
+    public Object validating(Class<?> paramsType, String param) {
+        SlowValidatorEvent event = new SlowValidatorEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Called without a span, the event has no duration, so is only
+     * recorded with no threshold.
+     */
+    @Override
+    public void validated(Class<?> paramsType, String param, boolean valid, long nanos) {
+        validated(validating(paramsType, param), paramsType, param, valid, nanos);
+    }
+
+    @Override
+    public void validated(Object span, Class<?> paramsType, String param, boolean valid, long nanos) {
+        if (span instanceof SlowValidatorEvent) {
+            SlowValidatorEvent event = (SlowValidatorEvent) span;
+            event.end();
+            // Below the threshold, nothing more is done
+            if (event.shouldCommit()) {
+                event.declaringType = paramsType;
+                event.parameter = param;
+                event.validators = validatorNames.get(paramsType).get(param);
+                event.valid = valid;
+                event.commit();
+            }
+        }
+        if (delegate != null) {
+            delegate.validated(paramsType, param, valid, nanos);
+        }
+    }
+
+    @Override
+    public void failed(Class<?> paramsType, String param, FailureKind kind) {
+        if (delegate != null) {
+            delegate.failed(paramsType, param, kind);
+        }
+    }
+
+    @Override
+    public Object binding(Class<?> paramsType) {
+        BindingEvent event = new BindingEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Called without a span, the event has no duration.
+     */
+    @Override
+    public void bound(Class<?> paramsType, boolean valid, long nanos) {
+        bound(binding(paramsType), paramsType, valid, nanos);
+    }
+
+    @Override
+    public void bound(Object span, Class<?> paramsType, boolean valid, long nanos) {
+        if (span instanceof BindingEvent) {
+            BindingEvent event = (BindingEvent) span;
+            event.end();
+            if (event.shouldCommit()) {
+                event.declaringType = paramsType;
+                event.valid = valid;
+                event.commit();
+            }
+        }
+        if (delegate != null) {
+            delegate.bound(paramsType, valid, nanos);
+        }
+    }
+
+    private static Map<String, String> validatorNames(Class<?> type) {
+        Map<String, String> result = new HashMap<>();
+        Params params = type.getAnnotation(Params.class);
+        if (params != null) {
+            for (Param p : params.value()) {
+                StringBuilder sb = new StringBuilder();
+                for (StringValidators v : p.constraints()) {
+                    sb.append(sb.length() == 0 ? "" : ", ").append(v.name());
+                }
+                for (Class<? extends Validator<String>> v : p.validators()) {
+                    sb.append(sb.length() == 0 ? "" : ", ").append(v.getName());
+                }
+                result.put(p.value(), sb.toString());
+            }
+        }
+        return result;
+    }
+}
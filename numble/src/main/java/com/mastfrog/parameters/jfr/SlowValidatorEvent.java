@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * The validators for one parameter took longer than the threshold, 10ms
+ * unless a recording sets another.
+ *
+ * @author Tim Boudreau
+ */
+@Name("com.mastfrog.numble.SlowValidator")
+@Label("Slow Parameter Validator")
+@Description("The constraints and validators of one parameter took longer than the configured threshold")
+@Category({"Numble", "Validation"})
+@Threshold("10 ms")
+final class SlowValidatorEvent extends Event {
+
+    @Label("Declaring Type")
+    Class<?> declaringType;
+
+    @Label("Parameter")
+    String parameter;
+
+    @Label("Validators")
+    @Description("The constraints and validator classes run on the parameter, in order")
+    String validators;
+
+    @Label("Valid")
+    boolean valid;
+}
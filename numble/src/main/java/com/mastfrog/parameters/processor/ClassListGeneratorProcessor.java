@@ -30,8 +30,17 @@ import com.mastfrog.annotation.registries.AnnotationIndexFactory;
 import com.mastfrog.annotation.registries.IndexGeneratingProcessor;
 import com.mastfrog.annotation.registries.Line;
 import com.mastfrog.util.service.ServiceProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
 import javax.annotation.processing.SupportedSourceVersion;
@@ -39,8 +48,15 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 /**
+ * Writes the list of generated Params classes to
+ * <code>META-INF/http/numble.list</code>, and a ParamsRegistry implementation
+ * listing them as class literals, registered in <code>META-INF/services</code>.
  *
  * @author Tim Boudreau
  */
@@ -51,6 +67,10 @@ public class ClassListGeneratorProcessor extends IndexGeneratingProcessor<Line>
 
     private int ix = 0;
     static final String ORIGIN_ANNOTATION = "com.mastfrog.parameters.gen.Origin";
+    static final String REGISTRY_TYPE = "com.mastfrog.parameters.gen.ParamsRegistry";
+    private final Map<String, Element> roundTypes = new TreeMap<>();
+    private final Set<String> registries = new TreeSet<>();
+    private final List<Element> allTypes = new ArrayList<>();
 
     public ClassListGeneratorProcessor() {
         super(AnnotationIndexFactory.lines());
@@ -70,8 +90,89 @@ public class ClassListGeneratorProcessor extends IndexGeneratingProcessor<Line>
                 TypeElement te = (TypeElement) e;
                 String name = te.getQualifiedName().toString();
                 super.addIndexElement(Origin.META_INF_PATH, new Line(ix++, new Element[]{e}, name));
+                roundTypes.put(name, e);
             }
         }
         return true;
     }
+
+    @Override
+    protected void onAfterRound(RoundEnvironment env, boolean processingOver, int round) {
+        try {
+            // Written per round, so the source is compiled in a subsequent one
+            if (!roundTypes.isEmpty()) {
+                writeRegistry();
+                roundTypes.clear();
+            }
+            if (processingOver && !registries.isEmpty()) {
+                writeServiceRegistration();
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.toString());
+        }
+    }
+
+    private void writeRegistry() throws IOException {
+        String first = roundTypes.keySet().iterator().next();
+        int ixDot = first.lastIndexOf('.');
+        String pkg = ixDot < 0 ? "" : first.substring(0, ixDot);
+        // Registries from different libraries can share a package
+        String className = "NumbleRegistry_" + Integer.toHexString(roundTypes.keySet().hashCode());
+        String qualifiedName = pkg.isEmpty() ? className : pkg + '.' + className;
+        StringBuilder sb = new StringBuilder(256);
+        if (!pkg.isEmpty()) {
+            sb.append("package ").append(pkg).append(";\n\n");
+        }
+        sb.append("import java.util.Arrays;\n");
+        sb.append("import java.util.Collection;\n");
+        sb.append("import java.util.Collections;\n\n");
+        sb.append("/** \n    Generated list of &#064;Origin types\n*/\n");
+        sb.append("public final class ").append(className).append(" implements ")
+                .append(REGISTRY_TYPE).append(" {\n\n");
+        sb.append("    @Override\n");
+        sb.append("    public Collection<Class<?>> types() {\n");
+        sb.append("        return Collections.unmodifiableList(Arrays.<Class<?>>asList(");
+        for (Iterator<String> it = roundTypes.keySet().iterator(); it.hasNext();) {
+            sb.append("\n            ").append(it.next()).append(".class");
+            if (it.hasNext()) {
+                sb.append(',');
+            }
+        }
+        sb.append("));\n    }\n}\n");
+        Element[] els = roundTypes.values().toArray(new Element[roundTypes.size()]);
+        JavaFileObject src = processingEnv.getFiler().createSourceFile(qualifiedName, els);
+        try (OutputStream out = src.openOutputStream()) {
+            out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        registries.add(qualifiedName);
+        allTypes.addAll(roundTypes.values());
+    }
+
+    private void writeServiceRegistration() throws IOException {
+        String path = "META-INF/services/" + REGISTRY_TYPE;
+        // An incremental build may only have seen some of this module's
+        // types, so keep registries from earlier builds which still exist
+        Set<String> all = new TreeSet<>(registries);
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
+            for (String line : existing.getCharContent(true).toString().split("\n")) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")
+                        && processingEnv.getElementUtils().getTypeElement(line) != null) {
+                    all.add(line);
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            // Nothing written by an earlier build
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String reg : all) {
+            sb.append(reg).append('\n');
+        }
+        FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                path, allTypes.toArray(new Element[allTypes.size()]));
+        try (OutputStream out = file.openOutputStream()) {
+            out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
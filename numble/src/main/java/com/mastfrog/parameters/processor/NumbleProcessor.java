@@ -30,6 +30,7 @@ import com.mastfrog.util.service.ServiceProvider;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.AnnotationTypeMismatchException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -39,6 +40,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.processing.AbstractProcessor;
@@ -52,11 +54,13 @@ import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
@@ -78,6 +82,8 @@ public final class NumbleProcessor extends AbstractProcessor {
 
     private String optionalType = "java.util.Optional";
     private String fromNullable = "ofNullable";
+    private boolean nettyPresent;
+    private static final String STATELESS = "com.mastfrog.parameters.validators.Stateless";
     private static final char[] ILLEGAL_CHARS = ";,./*!@&^/\\<>?'\"[]{}-=+)(".toCharArray();
 
     @Override
@@ -96,6 +102,8 @@ public final class NumbleProcessor extends AbstractProcessor {
                 }
             }
 
+            nettyPresent = processingEnv.getElementUtils().getTypeElement("io.netty.buffer.ByteBuf") != null;
+
             Set<? extends Element> all = re.getElementsAnnotatedWith(Params.class);
             List<GeneratedParamsClass> interfaces = new LinkedList<>();
             outer:
@@ -162,6 +170,18 @@ public final class NumbleProcessor extends AbstractProcessor {
                     try (OutputStream out = obj.openOutputStream()) {
                         out.write(inf.toString().getBytes("UTF-8"));
                     }
+                    GeneratedCheckerClass checker = new GeneratedCheckerClass(inf);
+                    JavaFileObject checkerObj = filer.createSourceFile(inf.packageName + '.' + checker.className(), inf.el);
+                    try (OutputStream out = checkerObj.openOutputStream()) {
+                        out.write(checker.toString().getBytes("UTF-8"));
+                    }
+                    if (inf.jsonCodec) {
+                        GeneratedJsonModuleClass module = new GeneratedJsonModuleClass(inf);
+                        JavaFileObject moduleObj = filer.createSourceFile(inf.packageName + '.' + module.className(), inf.el);
+                        try (OutputStream out = moduleObj.openOutputStream()) {
+                            out.write(module.toString().getBytes("UTF-8"));
+                        }
+                    }
                     listBuilder.append(inf.className).append('\n');
                 } catch (Exception ex) {
                     ex.printStackTrace();
@@ -198,6 +218,33 @@ public final class NumbleProcessor extends AbstractProcessor {
         return null;
     }
 
+    /**
+     * Determine if a validator is marked &#064;Stateless and can be created
+     * without an injector, so generated code can use the shared instance.
+     */
+    private boolean isStateless(String validatorType) {
+        TypeElement type = processingEnv.getElementUtils().getTypeElement(validatorType);
+        if (type == null) {
+            return false;
+        }
+        boolean marked = false;
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (STATELESS.equals(mirror.getAnnotationType().toString())) {
+                marked = true;
+                break;
+            }
+        }
+        if (!marked || !type.getModifiers().contains(Modifier.PUBLIC)) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Map<String, List<String>> validatorsForParam(Element el) {
         AnnotationMirror mirror = findMirror(el);
         Map<String, List<String>> result = new HashMap<>();
@@ -357,6 +404,11 @@ public final class NumbleProcessor extends AbstractProcessor {
         private final boolean jsonConstructor;
         private final boolean anySetter;
         private final boolean validate;
+        private final boolean failFast;
+        private final boolean jsonCodec;
+        private final boolean compact;
+        // Bits used in the presence mask of the compact layout
+        private int maskBits;
         private final boolean generateToMap = true;
         private final Params params;
         private final Map<String, List<String>> validators;
@@ -370,6 +422,9 @@ public final class NumbleProcessor extends AbstractProcessor {
             this.jsonConstructor = params.jsonConstructor();
             this.anySetter = params.allowUnlistedParameters();
             this.validate = params.generateValidationCode();
+            this.failFast = params.failFast();
+            this.jsonCodec = params.generateJsonCodec();
+            this.compact = params.compactLayout();
             this.validators = validators;
         }
 
@@ -381,8 +436,18 @@ public final class NumbleProcessor extends AbstractProcessor {
             return packageName.replace('.', '/');
         }
 
+        public String checkerClassName() {
+            return className + "Checker";
+        }
+
+        public String jsonModuleClassName() {
+            return className + "JsonModule";
+        }
+
         public void add(Param param) {
-            methods.add(new GeneratedParameter(param));
+            GeneratedParameter m = new GeneratedParameter(param, methods.size());
+            m.checkDefaultValue();
+            methods.add(m);
         }
 
         private boolean needOptional() {
@@ -394,6 +459,26 @@ public final class NumbleProcessor extends AbstractProcessor {
             return params.allowUnlistedParameters();
         }
 
+        private List<String> fieldTypes() {
+            List<String> result = new LinkedList<>();
+            for (GeneratedParameter m : methods) {
+                result.add(m.fieldType());
+            }
+            return result;
+        }
+
+        private List<String> jsonConstructorTypes() {
+            List<String> result = new LinkedList<>();
+            for (GeneratedParameter m : methods) {
+                try {
+                    result.add(m.param.type().typeName(m.isRequired()));
+                } catch (EnumConstantNotPresentException e) {
+                    result.add("INVALID_ANNOTATION");
+                }
+            }
+            return result;
+        }
+
         private Set<String> stringValidators() {
             Set<String> result = new HashSet<>();
             for (Param param : params.value()) {
@@ -404,6 +489,235 @@ public final class NumbleProcessor extends AbstractProcessor {
             return result;
         }
 
+        /**
+         * Assign each boolean, and each optional non-string, a bit in the
+         * presence mask of the compact layout.
+         */
+        private void layoutMask() {
+            maskBits = 0;
+            if (!compact) {
+                return;
+            }
+            for (GeneratedParameter m : methods) {
+                if (m.isOptional() && !m.param.type().isString()) {
+                    m.presenceBit = maskBits++;
+                }
+                if (m.isBoolean()) {
+                    m.valueBit = maskBits++;
+                }
+            }
+            if (maskBits > 64) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Too many booleans and "
+                        + "optional values for compactLayout: " + maskBits + " bits needed, 64 available", el);
+            }
+        }
+
+        private String maskType() {
+            return maskBits > 32 ? "long" : "int";
+        }
+
+        private String maskBit(int bit) {
+            return maskBits > 32 ? "(1L << " + bit + ")" : "(1 << " + bit + ")";
+        }
+
+        private List<String> compactArgumentTypes() {
+            List<String> result = new LinkedList<>();
+            for (GeneratedParameter m : methods) {
+                result.add(m.compactArgumentType());
+            }
+            return result;
+        }
+
+        private void writeJsonCreatorSignature(StringBuilder sb) {
+            indent("@JsonCreator", sb, 1);
+            indent("public " + className + "(", sb, 1);
+            for (Iterator<GeneratedParameter> it = methods.iterator(); it.hasNext();) {
+                GeneratedParameter m = it.next();
+                StringBuilder b = new StringBuilder();
+                b.append("@JsonProperty(");
+                if (m.isRequired()) {
+                    b.append("value=\"").append(m.param.value()).append("\"")
+                            .append(", required=true");
+                } else {
+                    b.append("value=\"").append(m.param.value()).append("\"")
+                            .append(", required=false");
+                }
+                b.append(") ");
+                try {
+                    b.append(m.param.type().typeName(m.isRequired())).append(" ");
+                } catch (EnumConstantNotPresentException e) {
+                    b.append("INVALID_ANNOTATION").append(" ");
+                }
+                b.append(m.fieldName());
+                if (it.hasNext()) {
+                    b.append(",");
+                } else {
+                    b.append(") {");
+                }
+                indent(b.toString(), sb, 2);
+            }
+        }
+
+        /**
+         * Declare a local for each parameter, holding its default value if
+         * any, and fill them in one pass over the entries of a KeysValues
+         * named params, switching on the key, and collecting unlisted
+         * parameters in the same loop.
+         */
+        private void writeSinglePassLoad(StringBuilder sb) {
+            for (GeneratedParameter m : methods) {
+                m.localDeclaration(sb, 2);
+                if (m.tracksPresence()) {
+                    indent("boolean " + m.presenceFlagName() + " = false;", sb, 2);
+                }
+            }
+            if (methods.isEmpty() && !anySetter) {
+                return;
+            }
+            if (anySetter && compact) {
+                indent("Map<String,String> __extra = null;", sb, 2);
+            }
+            indent("for (Map.Entry<String, ?> __e : params.objectEntries()) {", sb, 2);
+            indent("Object __v = __e.getValue();", sb, 3);
+            indent("if (__v == null) {", sb, 3);
+            indent("continue;", sb, 4);
+            indent("}", sb, 3);
+            indent("switch (__e.getKey()) {", sb, 3);
+            for (GeneratedParameter m : methods) {
+                indent("case \"" + m.param.value() + "\" :", sb, 4);
+                indent(m.fieldName() + " = " + m.entryConversion("__v") + ";", sb, 5);
+                if (m.tracksPresence()) {
+                    indent(m.presenceFlagName() + " = true;", sb, 5);
+                }
+                indent("break;", sb, 5);
+            }
+            if (anySetter && compact) {
+                indent("default :", sb, 4);
+                collectExtra(sb, 5);
+            } else if (anySetter) {
+                indent("default :", sb, 4);
+                indent("__any (__e.getKey(), __v.toString());", sb, 5);
+            }
+            indent("}", sb, 3);
+            indent("}", sb, 2);
+            for (GeneratedParameter m : methods) {
+                if (m.tracksPresence()) {
+                    indent("if (!" + m.presenceFlagName() + ") {", sb, 2);
+                    indent("throw new NumberFormatException(\"Missing " + m.param.value() + "\");", sb, 3);
+                    indent("}", sb, 2);
+                }
+            }
+        }
+
+        /**
+         * Begin a Flight Recorder event for construction from KeysValues;
+         * ConstructionEvents returns null without touching jdk.jfr unless
+         * it is present and a recording wants the event.
+         */
+        private void beginConstructionEvent(StringBuilder sb) {
+            indent("Object __event = ConstructionEvents.begin();", sb, 2);
+        }
+
+        private void commitConstructionEvent(StringBuilder sb) {
+            indent("ConstructionEvents.constructed(__event, " + srcClassName + ".class);", sb, 2);
+        }
+
+        /**
+         * Put the entry __e, whose value is __v, in a local map of unlisted
+         * parameters named __extra, creating it if need be.
+         */
+        private void collectExtra(StringBuilder sb, int level) {
+            indent("if (__extra == null) {", sb, level);
+            indent("__extra = new HashMap<>();", sb, level + 1);
+            indent("}", sb, level);
+            indent("__extra.put(__e.getKey(), __v.toString());", sb, level);
+        }
+
+        /**
+         * The constructors of the compact layout: one from KeysValues, one
+         * for Jackson, and one taking each value (null for absent optional
+         * ones), which pack them into fields.
+         */
+        private void writeCompactConstructors(StringBuilder sb) {
+            indent("@Inject", sb, 1);
+            indent("public " + className + " (KeysValues params) {", sb, 1);
+            beginConstructionEvent(sb);
+            writeSinglePassLoad(sb);
+            writeCompactAssignments(sb);
+            if (anySetter) {
+                indent("this.__metadata = __extra;", sb, 2);
+            }
+            commitConstructionEvent(sb);
+            indent("}\n", sb, 1);
+
+            boolean canonicalIsJson = jsonConstructor && !methods.isEmpty()
+                    && compactArgumentTypes().equals(jsonConstructorTypes());
+            if (jsonConstructor && !canonicalIsJson && !methods.isEmpty()) {
+                writeJsonCreatorSignature(sb);
+                StringBuilder args = new StringBuilder();
+                for (GeneratedParameter m : methods) {
+                    if (args.length() > 0) {
+                        args.append(", ");
+                    }
+                    String defVal = m.defaultLiteral();
+                    if (defVal != null) {
+                        args.append(m.fieldName()).append(" == null ? ").append(defVal).append(" : ").append(m.fieldName());
+                    } else {
+                        args.append(m.fieldName());
+                    }
+                }
+                indent("this(" + args + ");", sb, 2);
+                indent("}\n", sb, 1);
+            }
+            if (canonicalIsJson) {
+                writeJsonCreatorSignature(sb);
+            } else {
+                StringBuilder sig = new StringBuilder();
+                for (GeneratedParameter m : methods) {
+                    if (sig.length() > 0) {
+                        sig.append(", ");
+                    }
+                    sig.append(m.compactArgumentType()).append(' ').append(m.fieldName());
+                }
+                indent(className + "(" + sig + ") {", sb, 1);
+            }
+            writeCompactAssignments(sb);
+            indent("}\n", sb, 1);
+        }
+
+        private void writeCompactAssignments(StringBuilder sb) {
+            if (maskBits > 0) {
+                indent(maskType() + " __mask = 0;", sb, 2);
+            }
+            for (GeneratedParameter m : methods) {
+                String f = m.fieldName();
+                if (m.isBoolean()) {
+                    if (m.isOptional()) {
+                        indent("if (" + f + " != null) {", sb, 2);
+                        indent("__mask |= " + maskBit(m.presenceBit) + ";", sb, 3);
+                        indent("if (" + f + ") {", sb, 3);
+                        indent("__mask |= " + maskBit(m.valueBit) + ";", sb, 4);
+                        indent("}", sb, 3);
+                        indent("}", sb, 2);
+                    } else {
+                        indent("if (" + f + ") {", sb, 2);
+                        indent("__mask |= " + maskBit(m.valueBit) + ";", sb, 3);
+                        indent("}", sb, 2);
+                    }
+                } else if (m.presenceBit >= 0) {
+                    indent("this." + f + " = " + f + " == null ? " + m.zeroLiteral() + " : " + f + ";", sb, 2);
+                    indent("if (" + f + " != null) {", sb, 2);
+                    indent("__mask |= " + maskBit(m.presenceBit) + ";", sb, 3);
+                    indent("}", sb, 2);
+                } else {
+                    indent("this." + f + " = " + f + ";", sb, 2);
+                }
+            }
+            if (maskBits > 0) {
+                indent("this.__mask = __mask;", sb, 2);
+            }
+        }
+
         @Override
         public String toString() {
             StringBuilder sb = new StringBuilder(200);
@@ -419,22 +733,37 @@ public final class NumbleProcessor extends AbstractProcessor {
                     imports.add("com.fasterxml.jackson.annotation.JsonCreator");
                     imports.add("com.fasterxml.jackson.annotation.JsonProperty");
                 }
+                if (writesJson()) {
+                    imports.add("com.fasterxml.jackson.core.JsonFactory");
+                    imports.add("com.fasterxml.jackson.core.JsonGenerator");
+                    imports.add("java.io.IOException");
+                    imports.add("java.io.OutputStream");
+                    if (nettyPresent) {
+                        imports.add("io.netty.buffer.ByteBuf");
+                        imports.add("io.netty.buffer.ByteBufOutputStream");
+                    }
+                }
                 if (params.generateToJSON()) {
-                    imports.add("com.fasterxml.jackson.databind.ObjectMapper");
                     imports.add("com.fasterxml.jackson.core.JsonProcessingException");
+                    imports.add("com.fasterxml.jackson.databind.JsonMappingException");
+                    imports.add("java.io.StringWriter");
+                }
+                if (jsonCodec) {
+                    imports.add("com.fasterxml.jackson.databind.annotation.JsonDeserialize");
+                    imports.add("com.fasterxml.jackson.databind.annotation.JsonSerialize");
                 }
+                imports.add("org.netbeans.validation.api.Problems");
                 if (validate) {
-                    imports.add("org.netbeans.validation.api.Validator");
-                    imports.add("org.netbeans.validation.api.Problems");
                     imports.add("com.google.inject.Injector");
                     imports.add("com.mastfrog.parameters.gen.Validatable");
+                    imports.add("com.mastfrog.parameters.validation.ValidationMetrics");
                     interfaces.add("Validatable");
-                    for (String validator : stringValidators()) {
-                        imports.add("static org.netbeans.validation.api.builtin.stringvalidation.StringValidators." + validator);
-                    }
                 }
                 imports.add("com.mastfrog.parameters.KeysValues");
+                imports.add("com.mastfrog.parameters.TypeValidation");
+                imports.add("com.mastfrog.parameters.Types");
                 imports.add("com.mastfrog.parameters.gen.Origin");
+                imports.add("com.mastfrog.parameters.jfr.ConstructionEvents");
                 imports.add("java.io.Serializable");
                 if (anySetter || generateToMap) {
                     imports.add("java.util.Map");
@@ -444,6 +773,14 @@ public final class NumbleProcessor extends AbstractProcessor {
                 if (needOptional()) {
                     imports.add(optionalType);
                 }
+                if (compact) {
+                    for (GeneratedParameter m : methods) {
+                        String primitiveOptional = m.primitiveOptionalType();
+                        if (primitiveOptional != null && !imports.contains("java.util." + primitiveOptional)) {
+                            imports.add("java.util." + primitiveOptional);
+                        }
+                    }
+                }
                 imports.add("javax.inject.Inject");
                 Collections.sort(imports);
                 for (String s : imports) {
@@ -454,7 +791,12 @@ public final class NumbleProcessor extends AbstractProcessor {
                 sb.append("\nimport static com.mastfrog.parameters.Types.*;\n");
                 sb.append("/** \n    Generated from &#064;Param annotations on ").append(srcClassName).append("\n*/\n");
                 Collections.sort(methods);
+                layoutMask();
                 sb.append("@Origin(").append(srcClassName).append(".class)\n");
+                if (jsonCodec) {
+                    sb.append("@JsonSerialize(using = ").append(jsonModuleClassName()).append(".Serializer.class)\n");
+                    sb.append("@JsonDeserialize(using = ").append(jsonModuleClassName()).append(".Deserializer.class)\n");
+                }
                 if (jsonConstructor) {
                     sb.append("public ");
                 }
@@ -471,106 +813,187 @@ public final class NumbleProcessor extends AbstractProcessor {
                 }
                 sb.append(" {\n");
                 for (GeneratedParameter m : methods) {
-                    indent(m.varDeclaration(), sb, 1);
+                    if (!compact) {
+                        indent(m.varDeclaration(), sb, 1);
+                    } else if (!m.isBoolean()) {
+                        indent("private final " + m.compactFieldType() + " " + m.fieldName() + ";", sb, 1);
+                    }
                 }
-                if (anySetter) {
+                if (compact && maskBits > 0) {
+                    indent("private final " + maskType() + " __mask;", sb, 1);
+                }
+                if (anySetter && compact) {
+                    // Allocated only if there are unlisted parameters; volatile
+                    // and replaced rather than modified, so it is published
+                    // safely however an instance is shared
+                    indent("private volatile Map<String,String> __metadata;", sb, 1);
+                } else if (anySetter) {
                     indent("private final Map<String,String> __metadata = new HashMap<>();", sb, 1);
                 }
                 sb.append('\n');
-                indent("@Inject", sb, 1);
-                indent("public " + className + " (KeysValues params) {", sb, 1);
-                for (GeneratedParameter m : methods) {
-                    indent("this." + m.fieldName() + " = " + m.loadClause(), sb, 2);
-                }
-                if (anySetter) {
-                    indent("for (Map.Entry<String,String> __e : params) {", sb, 2);
-                    indent("switch (__e.getKey()) {", sb, 3);
+                if (compact) {
+                    writeCompactConstructors(sb);
+                } else {
+                    indent("@Inject", sb, 1);
+                    indent("public " + className + " (KeysValues params) {", sb, 1);
+                    beginConstructionEvent(sb);
+                    writeSinglePassLoad(sb);
                     for (GeneratedParameter m : methods) {
-                        indent("case \"" + m.param.value() + "\" :", sb, 4);
-                    }
-                    indent("break;", sb, 5);
-                    indent("default :", sb, 4);
-                    indent("__any (__e.getKey(), __e.getValue());", sb, 5);
-                    indent("}", sb, 3);
-                    indent("}", sb, 2);
-                }
-                indent("}\n", sb, 1);
-
-                if (jsonConstructor) {
-                    indent("@JsonCreator", sb, 1);
-                    indent("public " + className + "(", sb, 1);
-                    for (Iterator<GeneratedParameter> it = methods.iterator(); it.hasNext();) {
-                        GeneratedParameter m = it.next();
-                        StringBuilder b = new StringBuilder();
-                        b.append("@JsonProperty(");
-                        if (m.isRequired()) {
-                            b.append("value=\"").append(m.param.value()).append("\"");
-                        } else {
-                            b.append("value=\"").append(m.param.value()).append("\"")
-                                    .append(", required=false");
-                        }
-                        b.append(") ");
-                        try {
-                            b.append(m.param.type().typeName(m.isRequired())).append(" ");
-                        } catch (EnumConstantNotPresentException e) {
-                            b.append("INVALID_ANNOTATION").append(" ");
-                        }
-                        b.append(m.fieldName());
-                        if (it.hasNext()) {
-                            b.append(",");
+                        if (m.isOptional()) {
+                            indent("this." + m.fieldName() + " = Optional." + fromNullable + "(" + m.fieldName() + ");", sb, 2);
                         } else {
-                            b.append(") {");
+                            indent("this." + m.fieldName() + " = " + m.fieldName() + ";", sb, 2);
                         }
-                        indent(b.toString(), sb, 2);
                     }
-                    for (GeneratedParameter m : methods) {
-                        String defVal = null;
-                        if (!"".equals(m.param.defaultValue())) {
+                    commitConstructionEvent(sb);
+                    indent("}\n", sb, 1);
+
+                    if (jsonConstructor) {
+                        indent("@JsonCreator", sb, 1);
+                        indent("public " + className + "(", sb, 1);
+                        for (Iterator<GeneratedParameter> it = methods.iterator(); it.hasNext();) {
+                            GeneratedParameter m = it.next();
+                            StringBuilder b = new StringBuilder();
+                            b.append("@JsonProperty(");
+                            if (m.isRequired()) {
+                                b.append("value=\"").append(m.param.value()).append("\"")
+                                        .append(", required=true");
+                            } else {
+                                b.append("value=\"").append(m.param.value()).append("\"")
+                                        .append(", required=false");
+                            }
+                            b.append(") ");
                             try {
-                                if (m.param.type().isString()) {
-                                    defVal = '"' + m.param.defaultValue().replaceAll("\"", "\\\"") + '"';
-                                } else {
-                                    defVal = m.param.defaultValue();
-                                    switch (m.param.type()) {
-                                        case LONG:
-                                        case NON_NEGATIVE_LONG:
-                                            if (!defVal.endsWith("L") && !defVal.endsWith("l")) {
-                                                defVal += "L";
-                                            }
-                                    }
-                                }
+                                b.append(m.param.type().typeName(m.isRequired())).append(" ");
                             } catch (EnumConstantNotPresentException e) {
-                                defVal = "null; // " + e.getMessage();
+                                b.append("INVALID_ANNOTATION").append(" ");
+                            }
+                            b.append(m.fieldName());
+                            if (it.hasNext()) {
+                                b.append(",");
+                            } else {
+                                b.append(") {");
                             }
+                            indent(b.toString(), sb, 2);
                         }
-                        if (defVal != null) {
-                            indent("this." + m.fieldName() + " = " + m.fieldName() + " == null ? " + defVal + " : " + m.fieldName() + ";", sb, 2);
-                        } else if (!m.param.required()) {
-                            indent("this." + m.fieldName() + " = Optional." + fromNullable + "(" + m.fieldName() + ");", sb, 2);
-                        } else {
+                        for (GeneratedParameter m : methods) {
+                            String defVal = m.defaultLiteral();
+                            if (defVal != null) {
+                                indent("this." + m.fieldName() + " = " + m.fieldName() + " == null ? " + defVal + " : " + m.fieldName() + ";", sb, 2);
+                            } else if (!m.param.required()) {
+                                indent("this." + m.fieldName() + " = Optional." + fromNullable + "(" + m.fieldName() + ");", sb, 2);
+                            } else {
+                                indent("this." + m.fieldName() + " = " + m.fieldName() + ";", sb, 2);
+                            }
+                        }
+                        indent("}\n", sb, 1);
+                    }
+
+                    boolean useJsonConstructor = jsonConstructor && fieldTypes().equals(jsonConstructorTypes());
+                    if (!useJsonConstructor) {
+                        StringBuilder sig = new StringBuilder();
+                        for (GeneratedParameter m : methods) {
+                            if (sig.length() > 0) {
+                                sig.append(", ");
+                            }
+                            sig.append(m.fieldType()).append(' ').append(m.fieldName());
+                        }
+                        indent(className + "(" + sig + ") {", sb, 1);
+                        for (GeneratedParameter m : methods) {
                             indent("this." + m.fieldName() + " = " + m.fieldName() + ";", sb, 2);
                         }
+                        indent("}\n", sb, 1);
                     }
-                    indent("}\n", sb, 1);
                 }
 
+                indent("/**", sb, 1);
+                indent(" * Look up, check and convert each parameter once, returning a new", sb, 1);
+                indent(" * instance, or null if a required parameter is missing or a value", sb, 1);
+                indent(" * cannot be converted to its type, in which case the reasons are", sb, 1);
+                indent(" * added to the passed problems. Constraints and custom validators", sb, 1);
+                indent(" * are not run here; use validate() on the result for those.", sb, 1);
+                indent(" *", sb, 1);
+                indent(" * @param params The parameters", sb, 1);
+                indent(" * @param problems Problems to add to", sb, 1);
+                indent(" * @return A new instance or null", sb, 1);
+                indent(" */", sb, 1);
+                indent("public static " + className + " tryCreate(KeysValues params, Problems problems) {", sb, 1);
+                indent("boolean valid = true;", sb, 2);
+                indent("String value;", sb, 2);
+                if (methods.stream().anyMatch(m -> !m.param.type().isString())) {
+                    indent("Object raw;", sb, 2);
+                    indent("CharSequence chars;", sb, 2);
+                }
+                if (anySetter) {
+                    // Read every entry once, collecting unlisted parameters
+                    // in the same pass
+                    indent("Map<String,String> __extra = null;", sb, 2);
+                    for (GeneratedParameter m : methods) {
+                        indent("Object " + m.rawLocalName() + " = null;", sb, 2);
+                    }
+                    indent("for (Map.Entry<String, ?> __e : params.objectEntries()) {", sb, 2);
+                    indent("Object __v = __e.getValue();", sb, 3);
+                    indent("if (__v == null) {", sb, 3);
+                    indent("continue;", sb, 4);
+                    indent("}", sb, 3);
+                    indent("switch (__e.getKey()) {", sb, 3);
+                    for (GeneratedParameter m : methods) {
+                        indent("case \"" + m.param.value() + "\" :", sb, 4);
+                        indent(m.rawLocalName() + " = __v;", sb, 5);
+                        indent("break;", sb, 5);
+                    }
+                    indent("default :", sb, 4);
+                    collectExtra(sb, 5);
+                    indent("}", sb, 3);
+                    indent("}", sb, 2);
+                }
+                for (GeneratedParameter m : methods) {
+                    m.tryCreateClause(sb, anySetter);
+                }
+                String args = allFieldsArguments();
+                indent("if (!valid) {", sb, 2);
+                indent("return null;", sb, 3);
+                indent("}", sb, 2);
+                indent(className + " result = new " + className + "(" + args + ");", sb, 2);
+                if (anySetter && compact) {
+                    indent("result.__metadata = __extra;", sb, 2);
+                } else if (anySetter) {
+                    indent("if (__extra != null) {", sb, 2);
+                    indent("result.__metadata.putAll(__extra);", sb, 3);
+                    indent("}", sb, 2);
+                }
+                indent("return result;", sb, 2);
+                indent("}\n", sb, 1);
+
                 if (anySetter) {
                     sb.append("\n");
                     if (jsonConstructor) {
                         indent("@JsonAnySetter", sb, 1);
                     }
                     indent("public void __any(String key, String value){", sb, 1);
-                    indent("__metadata.put(key, value);", sb, 2);
+                    if (compact) {
+                        indent("Map<String,String> old = __metadata;", sb, 2);
+                        indent("Map<String,String> nue = old == null ? new HashMap<>() : new HashMap<>(old);", sb, 2);
+                        indent("nue.put(key, value);", sb, 2);
+                        indent("__metadata = nue;", sb, 2);
+                    } else {
+                        indent("__metadata.put(key, value);", sb, 2);
+                    }
                     indent("}", sb, 1);
                     sb.append("\n");
                     indent("public Optional<String> get(String key) {", sb, 1);
-                    indent("return Optional." + fromNullable + "(__metadata.get(key));", sb, 2);
+                    if (compact) {
+                        indent("Map<String,String> extra = __metadata;", sb, 2);
+                        indent("return Optional." + fromNullable + "(extra == null ? null : extra.get(key));", sb, 2);
+                    } else {
+                        indent("return Optional." + fromNullable + "(__metadata.get(key));", sb, 2);
+                    }
                     indent("}", sb, 1);
                     sb.append("\n");
                 }
 
                 for (GeneratedParameter m : methods) {
-                    indent(m.toString(), sb, 1);
+                    indent(compact ? m.compactGetter() : m.toString(), sb, 1);
                 }
                 indent("@Override", sb, 1);
                 indent("public String toString() {", sb, 1);
@@ -578,7 +1001,8 @@ public final class NumbleProcessor extends AbstractProcessor {
                 sb.append("           ");
                 for (int i = 0; i < methods.size(); i++) {
                     GeneratedParameter m = methods.get(i);
-                    sb.append("\" ").append(m.param.value()).append(" = ").append('"').append(" + ").append(m.fieldName());
+                    sb.append("\" ").append(m.param.value()).append(" = ").append('"').append(" + ")
+                            .append(compact ? m.getterName() + "()" : m.fieldName());
                     if (i != methods.size() - 1) {
                         sb.append("\n            + ");
                     }
@@ -596,15 +1020,24 @@ public final class NumbleProcessor extends AbstractProcessor {
                 indent("if (o instanceof " + className + ") {", sb, 2);
                 indent(className + " other = (" + className + ") o;", sb, 3);
                 indent("return ", sb, 3);
-                for (int i = 0; i < methods.size(); i++) {
-                    GeneratedParameter method = methods.get(i);
-                    String delim = i < methods.size() - 1 ? " &&" : ";";
-                    if (method.isPrimitive()) {
-                        indent("this." + method.fieldName() + " == other." + method.fieldName() + delim, sb, 4);
+                List<String> comparisons = new ArrayList<>();
+                for (GeneratedParameter method : methods) {
+                    if (compact && method.isBoolean()) {
+                        continue;
+                    }
+                    if (method.isPrimitive() || (compact && method.presenceBit >= 0)) {
+                        comparisons.add("this." + method.fieldName() + " == other." + method.fieldName());
                     } else {
-                        indent("Objects.equals(this." + method.fieldName() + ", other." + method.fieldName() + ") " + delim, sb, 4);
+                        comparisons.add("Objects.equals(this." + method.fieldName() + ", other." + method.fieldName() + ") ");
                     }
                 }
+                if (compact && maskBits > 0) {
+                    comparisons.add("this.__mask == other.__mask");
+                }
+                for (int i = 0; i < comparisons.size(); i++) {
+                    String delim = i < comparisons.size() - 1 ? " &&" : ";";
+                    indent(comparisons.get(i) + delim, sb, 4);
+                }
                 indent("}", sb, 2);
                 indent("return false;", sb, 2);
                 indent("}\n", sb, 1);
@@ -612,10 +1045,18 @@ public final class NumbleProcessor extends AbstractProcessor {
                 indent("@Override", sb, 1);
                 indent("public int hashCode() {", sb, 1);
                 indent("return Objects.hash(", sb, 2);
-                for (int i = 0; i < methods.size(); i++) {
-                    GeneratedParameter method = methods.get(i);
-                    String delim = i < methods.size() - 1 ? "," : ");";
-                    indent(method.fieldName() + delim, sb, 3);
+                List<String> hashed = new ArrayList<>();
+                for (GeneratedParameter method : methods) {
+                    if (!compact || !method.isBoolean()) {
+                        hashed.add(method.fieldName());
+                    }
+                }
+                if (compact && maskBits > 0) {
+                    hashed.add("__mask");
+                }
+                for (int i = 0; i < hashed.size(); i++) {
+                    String delim = i < hashed.size() - 1 ? "," : ");";
+                    indent(hashed.get(i) + delim, sb, 3);
                 }
                 indent("}", sb, 1);
 
@@ -623,39 +1064,37 @@ public final class NumbleProcessor extends AbstractProcessor {
                     sb.append("\n");
                     indent("@Override", sb, 1);
                     indent("public Problems validate (Injector inj, Problems problems) {", sb, 1);
+                    indent(checkerClassName() + " checker = " + checkerClassName() + ".forInjector(inj);", sb, 2);
+                    indent("ValidationMetrics metrics = checker.metrics();", sb, 2);
+                    indent("if (metrics == null) {", sb, 2);
+                    indent("return validate(checker, problems);", sb, 3);
+                    indent("}", sb, 2);
+                    indent("Object span = metrics.checking(" + srcClassName + ".class);", sb, 2);
+                    indent("long start = System.nanoTime();", sb, 2);
+                    indent("Problems found = validate(checker, new Problems());", sb, 2);
+                    indent("metrics.checked(span, " + srcClassName + ".class, !found.hasFatal(), System.nanoTime() - start);", sb, 2);
+                    indent("return problems.addAll(found);", sb, 2);
+                    indent("}", sb, 1);
+                    sb.append("\n");
+                    indent("private Problems validate(" + checkerClassName() + " checker, Problems problems) {", sb, 1);
                     for (GeneratedParameter p : methods) {
-                        List<String> validatorTypes = validators.get(p.param.value());
-
-                        if (p.param.constraints().length == 0 && (validatorTypes == null || validatorTypes.isEmpty())) {
+                        p.instanceTypeCheck(sb, failFast);
+                    }
+                    for (GeneratedParameter p : methods) {
+                        if (!p.hasValueChecks(validators)) {
                             continue;
                         }
-                        final boolean optional = !p.isRequired() && "".equals(p.param.defaultValue());
-                        if (p.param.constraints().length > 0) {
-                            int ind = optional ? 2 : 3;
-                            if (optional) {
-                                indent("if (" + p.fieldName() + ".isPresent()) {", sb, 2);
-                            }
-                            for (StringValidators v : p.param.constraints()) {
-                                indent(v.name() + ".validate(problems, \"" + p.param.value() + "\", " + p.fieldName() + (optional ? ".get()" : "") + ");", sb, optional ? ind + 1 : ind);
-                            }
-                            if (optional) {
-                                indent("}", sb, 2);
-                            }
+                        if (p.isOptional()) {
+                            indent("if (" + p.presentExpression() + ") {", sb, 2);
+                            indent("checker." + p.validateMethodName() + "(" + p.asString(p.valueExpression()) + ", problems);", sb, 3);
+                            indent("}", sb, 2);
+                        } else {
+                            indent("checker." + p.validateMethodName() + "(" + p.asString(p.valueExpression()) + ", problems);", sb, 2);
                         }
-                        int ix = 0;
-                        if (validatorTypes != null && !validatorTypes.isEmpty()) {
-                            for (String type : validatorTypes) {
-                                String varName = p.fieldName() + "Validator" + ++ix;
-                                if (!optional) {
-                                    indent("Validator<String> " + varName + " = inj.getInstance(" + type + ".class);", sb, 2);
-                                    indent(varName + ".validate (problems, " + "\"" + p.param.value() + "\", " + p.fieldName() + (p.param.type().isString() ? "" : " + \"\"") + ");", sb, 2);
-                                } else {
-                                    indent("if (" + p.fieldName() + ".isPresent()) {", sb, 2);
-                                    indent("Validator<String>  " + varName + " = inj.getInstance(" + type + ".class);", sb, 3);
-                                    indent(varName + ".validate (problems, " + "\"" + p.param.value() + "\", " + p.fieldName() + ".get() " + (p.param.type().isString() ? "" : " + \"\"") + ");", sb, 3);
-                                    indent("}", sb, 2);
-                                }
-                            }
+                        if (failFast) {
+                            indent("if (problems.hasFatal()) {", sb, 2);
+                            indent("return problems;", sb, 3);
+                            indent("}", sb, 2);
                         }
                     }
                     indent("return problems;", sb, 2);
@@ -666,25 +1105,40 @@ public final class NumbleProcessor extends AbstractProcessor {
                     indent("public Map<String,Object> toMap() {", sb, 1);
                     indent("Map<String,Object> result = new HashMap<>();", sb, 2);
                     for (GeneratedParameter p : methods) {
-                        boolean optional = p.varDeclaration().contains("Optional");
-                        if (!optional) {
-                            indent("result.put(\"" + p.param.value() + "\", " + p.fieldName() + ");", sb, 2);
+                        if (!p.isOptional()) {
+                            indent("result.put(\"" + p.param.value() + "\", " + p.valueExpression() + ");", sb, 2);
                         } else {
-                            indent("if (" + p.fieldName() + ".isPresent()) {", sb, 2);
-                            indent("result.put(\"" + p.param.value() + "\", " + p.fieldName() + ".get());", sb, 3);
+                            indent("if (" + p.presentExpression() + ") {", sb, 2);
+                            indent("result.put(\"" + p.param.value() + "\", " + p.valueExpression() + ");", sb, 3);
                             indent("}", sb, 2);
                         }
                     }
-                    if (anySetter) {
+                    if (anySetter && compact) {
+                        indent("Map<String,String> __extra = __metadata;", sb, 2);
+                        indent("if (__extra != null) {", sb, 2);
+                        indent("result.putAll(__extra);", sb, 3);
+                        indent("}", sb, 2);
+                    } else if (anySetter) {
                         indent("result.putAll(__metadata);", sb, 2);
                     }
                     indent("return result;", sb, 2);
                     indent("}", sb, 1);
                 }
+                if (writesJson()) {
+                    writeJsonMethods(sb);
+                }
                 if (params.generateToJSON()) {
                     sb.append("\n");
                     indent("public String toJSON() throws JsonProcessingException {", sb, 1);
-                    indent("return new ObjectMapper().writeValueAsString(toMap());", sb, 2);
+                    indent("StringWriter out = new StringWriter();", sb, 2);
+                    indent("try (JsonGenerator gen = JsonHolder.FACTORY.createGenerator(out)) {", sb, 2);
+                    indent("writeJson(gen);", sb, 3);
+                    indent("} catch (JsonProcessingException e) {", sb, 2);
+                    indent("throw e;", sb, 3);
+                    indent("} catch (IOException e) {", sb, 2);
+                    indent("throw JsonMappingException.fromUnexpectedIOE(e);", sb, 3);
+                    indent("}", sb, 2);
+                    indent("return out.toString();", sb, 2);
                     indent("}", sb, 1);
                 }
 
@@ -696,6 +1150,95 @@ public final class NumbleProcessor extends AbstractProcessor {
             return sb.toString();
         }
 
+        private boolean writesJson() {
+            return jsonCodec || params.generateToJSON();
+        }
+
+        private void writeJsonMethods(StringBuilder sb) {
+            sb.append("\n");
+            indent("/**", sb, 1);
+            indent(" * Write this object as JSON, field by field, to the passed generator.", sb, 1);
+            indent(" *", sb, 1);
+            indent(" * @param gen A generator", sb, 1);
+            indent(" * @throws IOException If writing fails", sb, 1);
+            indent(" */", sb, 1);
+            indent("public void writeJson(JsonGenerator gen) throws IOException {", sb, 1);
+            indent("gen.writeStartObject(this);", sb, 2);
+            for (GeneratedParameter p : methods) {
+                String name = p.param.value();
+                if (p.isOptional()) {
+                    indent("if (" + p.presentExpression() + ") {", sb, 2);
+                    indent("gen." + p.jsonWriteMethod() + "(\"" + name + "\", " + p.valueExpression() + ");", sb, 3);
+                    indent("}", sb, 2);
+                } else {
+                    indent("gen." + p.jsonWriteMethod() + "(\"" + name + "\", " + p.valueExpression() + ");", sb, 2);
+                }
+            }
+            if (anySetter && compact) {
+                indent("Map<String,String> __extra = __metadata;", sb, 2);
+                indent("if (__extra != null) {", sb, 2);
+                indent("for (Map.Entry<String,String> __e : __extra.entrySet()) {", sb, 3);
+                indent("gen.writeStringField(__e.getKey(), __e.getValue());", sb, 4);
+                indent("}", sb, 3);
+                indent("}", sb, 2);
+            } else if (anySetter) {
+                indent("for (Map.Entry<String,String> __e : __metadata.entrySet()) {", sb, 2);
+                indent("gen.writeStringField(__e.getKey(), __e.getValue());", sb, 3);
+                indent("}", sb, 2);
+            }
+            indent("gen.writeEndObject();", sb, 2);
+            indent("}\n", sb, 1);
+
+            indent("/**", sb, 1);
+            indent(" * Write this object as UTF-8 JSON to the passed stream, which is", sb, 1);
+            indent(" * flushed but not closed.", sb, 1);
+            indent(" *", sb, 1);
+            indent(" * @param out A stream", sb, 1);
+            indent(" * @throws IOException If writing fails", sb, 1);
+            indent(" */", sb, 1);
+            indent("public void writeJson(OutputStream out) throws IOException {", sb, 1);
+            indent("try (JsonGenerator gen = JsonHolder.FACTORY.createGenerator(out)) {", sb, 2);
+            indent("writeJson(gen);", sb, 3);
+            indent("}", sb, 2);
+            indent("}\n", sb, 1);
+
+            if (nettyPresent) {
+                indent("/**", sb, 1);
+                indent(" * Write this object as UTF-8 JSON into the passed buffer.", sb, 1);
+                indent(" *", sb, 1);
+                indent(" * @param buf A buffer", sb, 1);
+                indent(" * @throws IOException If writing fails", sb, 1);
+                indent(" */", sb, 1);
+                indent("public void writeJson(ByteBuf buf) throws IOException {", sb, 1);
+                indent("writeJson(new ByteBufOutputStream(buf));", sb, 2);
+                indent("}\n", sb, 1);
+            }
+
+            indent("private static final class JsonHolder {", sb, 1);
+            indent("static final JsonFactory FACTORY = new JsonFactory()", sb, 2);
+            indent(".disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);", sb, 4);
+            indent("}", sb, 1);
+        }
+
+        /**
+         * Arguments to the all-fields constructor, from locals named for each
+         * field, with optional ones being nullable.
+         */
+        private String allFieldsArguments() {
+            StringBuilder args = new StringBuilder();
+            for (GeneratedParameter m : methods) {
+                if (args.length() > 0) {
+                    args.append(", ");
+                }
+                if (m.isOptional() && !compact) {
+                    args.append("Optional.").append(fromNullable).append('(').append(m.fieldName()).append(')');
+                } else {
+                    args.append(m.fieldName());
+                }
+            }
+            return args.toString();
+        }
+
         private void indent(String s, StringBuilder sb, int count) {
             char[] space = new char[count * 4];
             Arrays.fill(space, ' ');
@@ -705,14 +1248,21 @@ public final class NumbleProcessor extends AbstractProcessor {
         final class GeneratedParameter implements Comparable<GeneratedParameter> {
 
             private final Param param;
+            // Position in the @Params annotation, which is how failures
+            // reported to a ValidationSink identify the parameter
+            private final int index;
+            // Bits in the presence mask of the compact layout, -1 if unused
+            int presenceBit = -1;
+            int valueBit = -1;
 
-            public GeneratedParameter(Param param) {
+            public GeneratedParameter(Param param, int index) {
                 this.param = param;
+                this.index = index;
             }
 
             boolean isPrimitive() {
                 try {
-                    if (param.defaultValue() != null || param.required()) {
+                    if (!param.defaultValue().isEmpty() || param.required()) {
                         return param.type().isNumber();
                     }
                 } catch (AnnotationTypeMismatchException e) {
@@ -733,78 +1283,448 @@ public final class NumbleProcessor extends AbstractProcessor {
                 return '_' + param.value();
             }
 
-            String loadClause() {
+            boolean hasValueChecks(Map<String, List<String>> validators) {
+                List<String> validatorTypes = validators.get(param.value());
+                return param.constraints().length > 0 || (validatorTypes != null && !validatorTypes.isEmpty());
+            }
+
+            boolean hasTypeCheck() {
+                return param.type() != com.mastfrog.parameters.Types.STRING;
+            }
+
+            String validateMethodName() {
+                return "validate" + capitalize(param.value());
+            }
+
+            String constraintFailuresMethodName() {
+                return "constraintFailures" + capitalize(param.value());
+            }
+
+            boolean cachesValidation(Map<String, List<String>> validators) {
+                return param.cacheValidation() && hasValueChecks(validators);
+            }
+
+            String cacheFieldName() {
+                return fieldName() + "Cache";
+            }
+
+            String uncachedValidateMethodName() {
+                return "validate" + capitalize(param.value()) + "Uncached";
+            }
+
+            String unmeasuredValidateMethodName() {
+                return "validate" + capitalize(param.value()) + "Unmeasured";
+            }
+
+            boolean isBoolean() {
+                return param.type() == com.mastfrog.parameters.Types.BOOLEAN;
+            }
+
+            String compactFieldType() {
+                return isOptional() ? param.type().typeName(param.type().isNumber()) : fieldType();
+            }
+
+            /**
+             * The type of this parameter in the compact layout's canonical
+             * constructor, where absent optional values are null.
+             */
+            String compactArgumentType() {
+                return isOptional() ? param.type().typeName(false) : fieldType();
+            }
+
+            String presentExpression() {
+                if (!compact) {
+                    return fieldName() + ".isPresent()";
+                } else if (param.type().isString()) {
+                    return fieldName() + " != null";
+                }
+                return "(__mask & " + maskBit(presenceBit) + ") != 0";
+            }
+
+            String valueExpression() {
+                if (compact && isBoolean()) {
+                    return "(__mask & " + maskBit(valueBit) + ") != 0";
+                } else if (!compact && isOptional()) {
+                    return fieldName() + ".get()";
+                }
+                return fieldName();
+            }
+
+            String primitiveOptionalType() {
+                if (!isOptional()) {
+                    return null;
+                }
+                switch (param.type()) {
+                    case DOUBLE:
+                        return "OptionalDouble";
+                    case LONG:
+                    case NON_NEGATIVE_LONG:
+                        return "OptionalLong";
+                    case INTEGER:
+                    case NON_NEGATIVE_INTEGER:
+                        return "OptionalInt";
+                    default:
+                        return null;
+                }
+            }
+
+            String getterName() {
+                return "get" + capitalize(param.value());
+            }
+
+            String compactGetter() {
+                String primitiveOptional = primitiveOptionalType();
+                String type;
+                String body;
+                if (primitiveOptional != null) {
+                    type = primitiveOptional;
+                    body = presentExpression() + " ? " + primitiveOptional + ".of(" + fieldName()
+                            + ") : " + primitiveOptional + ".empty()";
+                } else if (isOptional() && isBoolean()) {
+                    type = "Optional<Boolean>";
+                    body = "Optional." + fromNullable + "(" + presentExpression() + " ? Boolean.valueOf("
+                            + valueExpression() + ") : null)";
+                } else if (isOptional()) {
+                    type = returnType();
+                    body = "Optional." + fromNullable + "(" + fieldName() + ")";
+                } else {
+                    type = returnType();
+                    body = valueExpression();
+                }
+                return "public " + type + " " + getterName() + "() {\n        return " + body + ";\n    }\n";
+            }
+
+            String asString(String expression) {
                 try {
-                    String nameQuoted = '"' + param.value() + '"';
-                    StringBuilder sb = new StringBuilder();
-                    String defVal = param.defaultValue().isEmpty() ? null : param.defaultValue();
-                    if (defVal != null) {
-                        defVal = defVal.trim();
+                    return param.type().isString() ? expression : "String.valueOf(" + expression + ")";
+                } catch (EnumConstantNotPresentException e) {
+                    return "String.valueOf(" + expression + ")";
+                }
+            }
+
+            /**
+             * Report a default value which is not valid for the type.
+             */
+            void checkDefaultValue() {
+                String defVal = param.defaultValue().trim();
+                if (defVal.isEmpty()) {
+                    return;
+                }
+                try {
+                    Problems problems = new Problems();
+                    TypeValidation.validator(param.type()).validate(problems, param.value(), defVal);
+                    if (problems.hasFatal()) {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Bad default value for "
+                                + param.value() + ":" + problems.getLeadProblem(), el);
+                    }
+                } catch (EnumConstantNotPresentException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Invalid type for "
+                            + param.value() + ": " + e.getMessage(), el);
+                }
+            }
+
+            /**
+             * Required numbers have no value to fall back on, so constructing
+             * from KeysValues fails if they are absent.
+             */
+            boolean tracksPresence() {
+                return isRequired() && param.type().isNumber();
+            }
+
+            String presenceFlagName() {
+                return "__has" + fieldName();
+            }
+
+            /**
+             * Converts the non-null value of an entry, as returned by
+             * KeysValues.getObject(), to this parameter's type.
+             */
+            String entryConversion(String var) {
+                switch (param.type()) {
+                    case STRING:
+                    case NON_EMPTY_STRING:
+                        return var + ".toString()";
+                    case BOOLEAN:
+                        return "TypeValidation.booleanValue(" + var + ")";
+                    case DOUBLE:
+                        return "TypeValidation.doubleValue(" + var + ")";
+                    case LONG:
+                    case NON_NEGATIVE_LONG:
+                        return "TypeValidation.longValue(" + var + ")";
+                    default:
+                        return "TypeValidation.intValue(" + var + ")";
+                }
+            }
+
+            String varDeclaration() {
+                try {
+                    return "private final " + param.type().typeName(param.required() || !param.defaultValue().isEmpty(), true) + ' '
+                            + fieldName() + ";";
+                } catch (Exception e) {
+                    return "// invalid annotation data: " + e.getMessage();
+                }
+            }
+
+            String fieldType() {
+                try {
+                    return param.type().typeName(param.required() || !param.defaultValue().isEmpty(), true);
+                } catch (Exception e) {
+                    return "Object";
+                }
+            }
+
+            boolean isOptional() {
+                return !param.required() && param.defaultValue().isEmpty();
+            }
+
+            String defaultLiteral() {
+                if ("".equals(param.defaultValue())) {
+                    return null;
+                }
+                String defVal;
+                try {
+                    if (param.type().isString()) {
+                        defVal = '"' + param.defaultValue().replaceAll("\"", "\\\"") + '"';
+                    } else {
+                        defVal = param.defaultValue();
                         switch (param.type()) {
                             case LONG:
-                                if (!defVal.endsWith("L")) {
+                            case NON_NEGATIVE_LONG:
+                                if (!defVal.endsWith("L") && !defVal.endsWith("l")) {
                                     defVal += "L";
                                 }
-                                break;
-                            case STRING:
-                            case NON_EMPTY_STRING:
-                                defVal = '"' + defVal.replaceAll("\"", "\\\"") + '"';
-                                break;
-                        }
-                        Problems problems = new Problems();
-                        TypeValidation.validator(param.type()).validate(problems, param.value(), defVal);
-                        if (problems.hasFatal()) {
-                            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Bad default value for "
-                                    + param.value() + ":" + problems.getLeadProblem(), el);
                         }
                     }
-                    if (param.required() && defVal == null) {
+                } catch (EnumConstantNotPresentException e) {
+                    defVal = "null; // " + e.getMessage();
+                }
+                return defVal;
+            }
+
+            String typedConversion(String var) {
+                switch (param.type()) {
+                    case BOOLEAN:
+                        return "(Boolean) " + var;
+                    case DOUBLE:
+                        return "((Number) " + var + ").doubleValue()";
+                    case LONG:
+                    case NON_NEGATIVE_LONG:
+                        return "((Number) " + var + ").longValue()";
+                    default:
+                        return "((Number) " + var + ").intValue()";
+                }
+            }
+
+            String zeroLiteral() {
+                switch (param.type()) {
+                    case BOOLEAN:
+                        return "false";
+                    case DOUBLE:
+                        return "0D";
+                    case LONG:
+                    case NON_NEGATIVE_LONG:
+                        return "0L";
+                    default:
+                        return "0";
+                }
+            }
+
+            String jsonWriteMethod() {
+                switch (param.type()) {
+                    case BOOLEAN:
+                        return "writeBooleanField";
+                    case STRING:
+                    case NON_EMPTY_STRING:
+                        return "writeStringField";
+                    default:
+                        return "writeNumberField";
+                }
+            }
+
+            /**
+             * Declare a local named for this field, initialized to the default
+             * value if there is one.
+             */
+            void localDeclaration(StringBuilder sb, int level) {
+                String local = fieldName();
+                String defVal = defaultLiteral();
+                if (isOptional()) {
+                    indent(param.type().typeName(false) + " " + local + " = null;", sb, level);
+                } else if (defVal != null) {
+                    indent(fieldType() + " " + local + " = " + defVal + ";", sb, level);
+                } else {
+                    String initial;
+                    switch (param.type()) {
+                        case BOOLEAN:
+                            initial = "false";
+                            break;
+                        case STRING:
+                        case NON_EMPTY_STRING:
+                            initial = "null";
+                            break;
+                        default:
+                            initial = "0";
+                    }
+                    indent(fieldType() + " " + local + " = " + initial + ";", sb, level);
+                }
+            }
+
+            /**
+             * The local tryCreate() reads the value of this parameter into,
+             * when it reads all of the entries at once.
+             */
+            String rawLocalName() {
+                return "__raw" + fieldName();
+            }
+
+            void tryCreateClause(StringBuilder sb, boolean fromEntries) {
+                String name = param.value();
+                String local = fieldName();
+                localDeclaration(sb, 2);
+                if (param.type().isString()) {
+                    if (fromEntries) {
+                        indent("value = " + rawLocalName() + " == null ? null : " + rawLocalName() + ".toString();", sb, 2);
+                    } else {
+                        indent("value = params.get(\"" + name + "\");", sb, 2);
+                    }
+                    if (isRequired()) {
+                        indent("if (value == null) {", sb, 2);
+                        indent("problems.append(\"Missing " + name + "\");", sb, 3);
+                        indent("valid = false;", sb, 3);
+                        indent("} else {", sb, 2);
+                    } else {
+                        indent("if (value != null) {", sb, 2);
+                    }
+                } else {
+                    // Values which are already a Number or Boolean skip the string
+                    String typed = "TypeValidation.isTypedValue(Types." + param.type().name() + ", raw)";
+                    indent(fromEntries ? "raw = " + rawLocalName() + ";"
+                            : "raw = params.getObject(\"" + name + "\");", sb, 2);
+                    if (isRequired()) {
+                        indent("if (raw == null) {", sb, 2);
+                        indent("problems.append(\"Missing " + name + "\");", sb, 3);
+                        indent("valid = false;", sb, 3);
+                        indent("} else if (" + typed + ") {", sb, 2);
+                    } else {
+                        indent("if (raw != null && " + typed + ") {", sb, 2);
+                    }
+                    indent(local + " = " + typedConversion("raw") + ";", sb, 3);
+                    indent(isRequired() ? "} else {" : "} else if (raw != null) {", sb, 2);
+                    indent("chars = raw instanceof CharSequence ? (CharSequence) raw : raw.toString();", sb, 3);
+                }
+                String in = param.type().isString() ? "value" : "chars";
+                switch (param.type()) {
+                    case STRING:
+                        indent(local + " = value;", sb, 3);
+                        break;
+                    case NON_EMPTY_STRING:
+                        indent("if (value.trim().isEmpty()) {", sb, 3);
+                        indent("problems.append(\"" + name + " may not be empty or all whitespace\");", sb, 4);
+                        indent("valid = false;", sb, 4);
+                        indent("} else {", sb, 3);
+                        indent(local + " = value;", sb, 4);
+                        indent("}", sb, 3);
+                        break;
+                    case BOOLEAN:
+                        indent("if (TypeValidation.isBoolean(" + in + ")) {", sb, 3);
+                        indent(local + " = TypeValidation.parseBoolean(" + in + ");", sb, 4);
+                        indent("} else {", sb, 3);
+                        indent("problems.append(\"" + name + " is not a boolean value: '\" + " + in + " + \"'\");", sb, 4);
+                        indent("valid = false;", sb, 4);
+                        indent("}", sb, 3);
+                        break;
+                    default:
+                        String problem;
                         switch (param.type()) {
-                            case STRING:
-                            case NON_EMPTY_STRING:
-                                sb.append("params.get(").append(nameQuoted).append(")");
+                            case DOUBLE:
+                                problem = " is not a number: '";
                                 break;
-                            default:
-                                sb.append(param.type().conversionMethod()).append("(").append("params.get(").append(nameQuoted).append("))");
-                        }
-//                        sb.append("params.get(").append(nameQuoted).append(").").append(param.type().conversionMethod());
-                    } else if (defVal != null) {
-                        switch (param.type()) {
-                            case STRING:
-                            case NON_EMPTY_STRING:
-                                sb.append("params.get(").append(nameQuoted).append(") == null ? " + defVal
-                                        + " : params.get(").append(nameQuoted).append(")");
+                            case NON_NEGATIVE_INTEGER:
+                            case NON_NEGATIVE_LONG:
+                                problem = " is not a non-negative integer: '";
                                 break;
                             default:
-                                sb.append("params.get(").append(nameQuoted).append(") == null ? ").append(defVal).append(" : ")
-                                        .append(param.type().conversionMethod()).append("(").append("params.get(").append(nameQuoted).append("))");
+                                problem = " is not an integer: '";
                         }
-//                        sb.append("params.get(").append(nameQuoted).append(").").append(param.type().conversionMethod());
-                    } else {
-                        switch (param.type()) {
-                            case STRING:
-                            case NON_EMPTY_STRING:
-                                sb.append("Optional." + fromNullable + "(params.get(").append(nameQuoted).append(") == null ? " + defVal
-                                        + " : params.get(").append(nameQuoted).append("))");
-                                break;
-                            default:
-                                sb.append("Optional." + fromNullable + "(params.get(").append(nameQuoted).append(") == null ? ").append(defVal).append(" : ")
-                                        .append(param.type().conversionMethod()).append("(").append("params.get(").append(nameQuoted).append(")))");
+                        String fail = "problems.append(\"" + name + problem + "\" + " + in + " + \"'\");";
+                        String scanner = scannerMethod();
+                        if (scanner == null) {
+                            indent("double parsed = TypeValidation.scanDouble(" + in + ");", sb, 3);
+                            indent("if (Double.isNaN(parsed) || Double.isInfinite(parsed)) {", sb, 3);
+                            indent(fail, sb, 4);
+                            indent("valid = false;", sb, 4);
+                            indent("} else {", sb, 3);
+                            indent(local + " = parsed;", sb, 4);
+                            indent("}", sb, 3);
+                        } else {
+                            indent("if (TypeValidation." + scanner + "(" + in + ")) {", sb, 3);
+                            indent(local + " = " + param.type().conversionMethod() + "(" + in + ");", sb, 4);
+                            indent("} else {", sb, 3);
+                            indent(fail, sb, 4);
+                            indent("valid = false;", sb, 4);
+                            indent("}", sb, 3);
                         }
+                }
+                indent("}", sb, 2);
+            }
+
+            /**
+             * Type checks which still mean something once a value has been
+             * converted, for instances which were deserialized rather than
+             * constructed from KeysValues.
+             */
+            void instanceTypeCheck(StringBuilder sb, boolean failFast) {
+                String name = param.value();
+                String value = valueExpression();
+                String test;
+                String problem;
+                switch (param.type()) {
+                    case NON_NEGATIVE_INTEGER:
+                    case NON_NEGATIVE_LONG:
+                        test = value + " < 0";
+                        problem = "\"" + name + " is not a non-negative integer: '\" + " + value + " + \"'\"";
+                        break;
+                    case NON_EMPTY_STRING:
+                        test = (isOptional() ? "" : value + " != null && ") + value + ".trim().isEmpty()";
+                        problem = "\"" + name + " may not be empty or all whitespace\"";
+                        break;
+                    default:
+                        test = null;
+                        problem = null;
+                }
+                if (isRequired() && !param.type().isNumber() && param.type() != com.mastfrog.parameters.Types.BOOLEAN) {
+                    indent("if (" + fieldName() + " == null) {", sb, 2);
+                    indent("problems.append(\"Missing " + name + "\");", sb, 3);
+                    if (failFast) {
+                        indent("return problems;", sb, 3);
                     }
-                    sb.append(";");
-                    return sb.toString();
-                } catch (Exception ex) {
-                    return "null;\n if (true) throw new UnsupportedOperatiionException(\"" + ex.getMessage().replace('"', '\'') + "\")";
+                    indent("}", sb, 2);
+                }
+                if (test != null) {
+                    if (isOptional()) {
+                        test = presentExpression() + " && " + test;
+                    }
+                    indent("if (" + test + ") {", sb, 2);
+                    indent("problems.append(" + problem + ");", sb, 3);
+                    if (failFast) {
+                        indent("return problems;", sb, 3);
+                    }
+                    indent("}", sb, 2);
                 }
             }
 
-            String varDeclaration() {
-                try {
-                    return "private final " + param.type().typeName(param.required() || !param.defaultValue().isEmpty(), true) + ' '
-                            + fieldName() + ";";
-                } catch (Exception e) {
-                    return "// invalid annotation data: " + e.getMessage();
+            private String scannerMethod() {
+                switch (param.type()) {
+                    case INTEGER:
+                        return "isInteger";
+                    case LONG:
+                        return "isLong";
+                    case NON_NEGATIVE_INTEGER:
+                        return "isNonNegativeInteger";
+                    case NON_NEGATIVE_LONG:
+                        return "isNonNegativeLong";
+                    default:
+                        return null;
                 }
             }
 
@@ -841,4 +1761,535 @@ public final class NumbleProcessor extends AbstractProcessor {
             }
         }
     }
+    private final class GeneratedCheckerClass {
+
+        private final GeneratedParamsClass params;
+
+        GeneratedCheckerClass(GeneratedParamsClass params) {
+            this.params = params;
+        }
+
+        String className() {
+            return params.checkerClassName();
+        }
+
+        private String typeValidatorField(String typeName) {
+            return typeName + "_TYPE";
+        }
+
+        private boolean anyStateless() {
+            for (List<String> validatorTypes : params.validators.values()) {
+                for (String validatorType : validatorTypes) {
+                    if (isStateless(validatorType)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(200);
+            try {
+                sb.append("package ").append(params.packageName).append(";\n\n");
+                List<String> imports = new LinkedList<>();
+                imports.add("com.google.inject.Injector");
+                imports.add("com.mastfrog.parameters.KeysValues");
+                imports.add("com.mastfrog.parameters.TypeValidation");
+                imports.add("com.mastfrog.parameters.Types");
+                imports.add("com.mastfrog.parameters.gen.GeneratedChecker");
+                imports.add("com.mastfrog.parameters.validation.FailureKind");
+                imports.add("com.mastfrog.parameters.validation.ValidationCache");
+                imports.add("com.mastfrog.parameters.validation.ValidationMetrics");
+                imports.add("com.mastfrog.parameters.validation.ValidationSink");
+                imports.add("com.mastfrog.parameters.validators.SharedValidators");
+                imports.add("java.lang.ref.WeakReference");
+                imports.add("java.util.Map");
+                imports.add("java.util.WeakHashMap");
+                imports.add("javax.inject.Inject");
+                imports.add("javax.inject.Singleton");
+                imports.add("org.netbeans.validation.api.Problems");
+                imports.add("org.netbeans.validation.api.Validator");
+                for (String validator : params.stringValidators()) {
+                    imports.add("static org.netbeans.validation.api.builtin.stringvalidation.StringValidators." + validator);
+                }
+                Collections.sort(imports);
+                for (String s : imports) {
+                    sb.append("import ").append(s).append(";\n");
+                }
+                sb.append("\n/** \n    Checks parameters for ").append(params.srcClassName)
+                        .append(", generated from its &#064;Param annotations\n*/\n");
+                sb.append("@Singleton\n");
+                sb.append("public final class ").append(className()).append(" implements GeneratedChecker {\n");
+                Set<String> typeNames = new TreeSet<>();
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    if (p.hasTypeCheck()) {
+                        typeNames.add(p.param.type().name());
+                    }
+                }
+                params.indent("private static final Map<Injector, WeakReference<" + className()
+                        + ">> INSTANCES = new WeakHashMap<>();", sb, 1);
+                params.indent("private static volatile WeakReference<" + className() + "> lastInstance;", sb, 1);
+                params.indent("private final WeakReference<Injector> injector;", sb, 1);
+                params.indent("private final ValidationMetrics metrics;", sb, 1);
+                boolean anyCached = false;
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    if (p.cachesValidation(params.validators)) {
+                        params.indent("private final ValidationCache " + p.cacheFieldName() + ";", sb, 1);
+                        anyCached = true;
+                    }
+                }
+                for (String typeName : typeNames) {
+                    params.indent("private static final Validator<String> " + typeValidatorField(typeName)
+                            + " = TypeValidation.validator(Types." + typeName + ");", sb, 1);
+                }
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    List<String> validatorTypes = params.validators.get(p.param.value());
+                    if (validatorTypes != null) {
+                        for (int i = 0; i < validatorTypes.size(); i++) {
+                            params.indent("private final Validator<String> " + p.fieldName() + "Validator" + (i + 1) + ";", sb, 1);
+                        }
+                    }
+                }
+                sb.append('\n');
+                params.indent("@Inject", sb, 1);
+                params.indent("public " + className() + "(Injector inj) {", sb, 1);
+                if (anyStateless()) {
+                    params.indent("SharedValidators shared = inj.getInstance(SharedValidators.class);", sb, 2);
+                }
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    List<String> validatorTypes = params.validators.get(p.param.value());
+                    if (validatorTypes != null) {
+                        for (int i = 0; i < validatorTypes.size(); i++) {
+                            String validatorType = validatorTypes.get(i);
+                            params.indent(p.fieldName() + "Validator" + (i + 1) + " = " + (isStateless(validatorType)
+                                    ? "shared.get(" : "inj.getInstance(") + validatorType + ".class);", sb, 2);
+                        }
+                    }
+                }
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    if (p.cachesValidation(params.validators)) {
+                        params.indent(p.cacheFieldName() + " = new ValidationCache(\"" + p.param.value() + "\", "
+                                + p.param.validationCacheSize() + ", this::" + p.uncachedValidateMethodName() + ");", sb, 2);
+                    }
+                }
+                params.indent("metrics = inj.getInstance(ValidationMetrics.class);", sb, 2);
+                params.indent("this.injector = new WeakReference<>(inj);", sb, 2);
+                params.indent("}\n", sb, 1);
+
+                params.indent("/**", sb, 1);
+                params.indent(" * Get the metrics validation is recorded to, or null if they", sb, 1);
+                params.indent(" * are disabled now; callers ask once per check.", sb, 1);
+                params.indent(" */", sb, 1);
+                params.indent("public ValidationMetrics metrics() {", sb, 1);
+                params.indent("return metrics.isEnabled() ? metrics : null;", sb, 2);
+                params.indent("}\n", sb, 1);
+
+                params.indent("/**", sb, 1);
+                params.indent(" * Get the instance for an injector, asking it only the first time.", sb, 1);
+                params.indent(" * Instances are held weakly, by injector, so neither is kept from", sb, 1);
+                params.indent(" * being collected; the last one used is checked first.", sb, 1);
+                params.indent(" */", sb, 1);
+                params.indent("public static " + className() + " forInjector(Injector inj) {", sb, 1);
+                params.indent("WeakReference<" + className() + "> last = lastInstance;", sb, 2);
+                params.indent(className() + " result = last == null ? null : last.get();", sb, 2);
+                params.indent("if (result != null && result.injector.get() == inj) {", sb, 2);
+                params.indent("return result;", sb, 3);
+                params.indent("}", sb, 2);
+                params.indent("synchronized (INSTANCES) {", sb, 2);
+                params.indent("last = INSTANCES.get(inj);", sb, 3);
+                params.indent("result = last == null ? null : last.get();", sb, 3);
+                params.indent("if (result == null) {", sb, 3);
+                // The injector holds its singletons strongly, so a weak
+                // reference lives as long as the injector does
+                params.indent("result = inj.getInstance(" + className() + ".class);", sb, 4);
+                params.indent("INSTANCES.put(inj, last = new WeakReference<>(result));", sb, 4);
+                params.indent("}", sb, 3);
+                params.indent("}", sb, 2);
+                params.indent("lastInstance = last;", sb, 2);
+                params.indent("return result;", sb, 2);
+                params.indent("}\n", sb, 1);
+
+                params.indent("@Override", sb, 1);
+                params.indent("public void check(KeysValues params, Problems problems) {", sb, 1);
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    String name = p.param.value();
+                    String var = p.fieldName();
+                    boolean hasType = p.hasTypeCheck();
+                    boolean hasChecks = p.hasValueChecks(params.validators);
+                    if (!p.isRequired() && !hasType && !hasChecks) {
+                        continue;
+                    }
+                    boolean typed = !p.param.type().isString();
+                    if (typed) {
+                        params.indent("Object " + var + " = params.getObject(\"" + name + "\");", sb, 2);
+                    } else {
+                        params.indent("String " + var + " = params.get(\"" + name + "\");", sb, 2);
+                    }
+                    if (p.isRequired()) {
+                        params.indent("if (" + var + " == null) {", sb, 2);
+                        params.indent("problems.append(\"Missing " + name + "\");", sb, 3);
+                        params.indent("failed(\"" + name + "\", FailureKind.MISSING);", sb, 3);
+                        if (hasType || hasChecks) {
+                            params.indent("} else {", sb, 2);
+                        }
+                    } else {
+                        params.indent("if (" + var + " != null) {", sb, 2);
+                    }
+                    String validate = hasChecks
+                            ? p.validateMethodName() + "(" + (typed ? var + ".toString()" : var) + ", problems);"
+                            : null;
+                    if (hasType) {
+                        checkType(p, var, typed ? var + ".toString()" : var, validate, sb, 3);
+                    } else if (hasChecks) {
+                        params.indent(validate, sb, 3);
+                    }
+                    params.indent("}", sb, 2);
+                }
+                params.indent("}\n", sb, 1);
+
+                params.indent("private void failed(String key, FailureKind kind) {", sb, 1);
+                params.indent("if (metrics.isEnabled()) {", sb, 2);
+                params.indent("metrics.failed(" + params.srcClassName + ".class, key, kind);", sb, 3);
+                params.indent("}", sb, 2);
+                params.indent("}\n", sb, 1);
+
+                params.indent("@Override", sb, 1);
+                params.indent("public boolean check(KeysValues params, ValidationSink sink) {", sb, 1);
+                // Presence and type checks first, then constraints and custom
+                // validators, so that garbage is rejected cheaply by a sink
+                // which stops at the first failure
+                List<GeneratedParamsClass.GeneratedParameter> constrained = new ArrayList<>();
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    String name = p.param.value();
+                    String var = p.fieldName();
+                    boolean hasType = p.hasTypeCheck();
+                    boolean hasChecks = p.hasValueChecks(params.validators);
+                    if (!p.isRequired() && !hasType && !hasChecks) {
+                        continue;
+                    }
+                    params.indent("Object " + var + " = params.getObject(\"" + name + "\");", sb, 2);
+                    if (hasChecks) {
+                        constrained.add(p);
+                    }
+                    if (!p.isRequired() && !hasType) {
+                        continue;
+                    }
+                    if (p.isRequired()) {
+                        params.indent("if (" + var + " == null) {", sb, 2);
+                        failure(p, "MISSING", "null", sb, 3);
+                        if (hasType) {
+                            params.indent("} else if (!TypeValidation.isValid(Types." + p.param.type().name() + ", " + var + ")) {", sb, 2);
+                        }
+                    } else {
+                        params.indent("if (" + var + " != null && !TypeValidation.isValid(Types." + p.param.type().name() + ", " + var + ")) {", sb, 2);
+                    }
+                    if (hasType) {
+                        failure(p, "INVALID_TYPE", var, sb, 3);
+                        if (hasChecks) {
+                            // Skip constraints for a value of the wrong type
+                            params.indent(var + " = null;", sb, 3);
+                        }
+                    }
+                    params.indent("}", sb, 2);
+                }
+                constraintChecks(constrained, sb);
+                params.indent("return true;", sb, 2);
+                params.indent("}\n", sb, 1);
+
+                params.indent("@Override", sb, 1);
+                params.indent("public boolean checkConstraints(KeysValues params, ValidationSink sink) {", sb, 1);
+                for (GeneratedParamsClass.GeneratedParameter p : constrained) {
+                    params.indent("Object " + p.fieldName() + " = params.getObject(\"" + p.param.value() + "\");", sb, 2);
+                }
+                constraintChecks(constrained, sb);
+                params.indent("return true;", sb, 2);
+                params.indent("}\n", sb, 1);
+
+                params.indent("@Override", sb, 1);
+                params.indent("public boolean checkValue(String key, String value, Problems problems) {", sb, 1);
+                params.indent("switch (key) {", sb, 2);
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    String name = p.param.value();
+                    params.indent("case \"" + name + "\":", sb, 3);
+                    String validate = p.hasValueChecks(params.validators)
+                            ? p.validateMethodName() + "(value, problems);" : null;
+                    if (p.hasTypeCheck()) {
+                        checkType(p, "value", "value", validate, sb, 4);
+                    } else if (validate != null) {
+                        params.indent(validate, sb, 4);
+                    }
+                    params.indent("return true;", sb, 4);
+                }
+                params.indent("default:", sb, 3);
+                params.indent("return false;", sb, 4);
+                params.indent("}", sb, 2);
+                params.indent("}", sb, 1);
+
+                if (anyCached) {
+                    sb.append('\n');
+                    params.indent("@Override", sb, 1);
+                    params.indent("public ValidationCache validationCache(String key) {", sb, 1);
+                    params.indent("switch (key) {", sb, 2);
+                    for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                        if (p.cachesValidation(params.validators)) {
+                            params.indent("case \"" + p.param.value() + "\":", sb, 3);
+                            params.indent("return " + p.cacheFieldName() + ";", sb, 4);
+                        }
+                    }
+                    params.indent("default:", sb, 3);
+                    params.indent("return null;", sb, 4);
+                    params.indent("}", sb, 2);
+                    params.indent("}", sb, 1);
+                }
+
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    if (!p.hasValueChecks(params.validators)) {
+                        continue;
+                    }
+                    String name = p.param.value();
+                    sb.append('\n');
+                    params.indent("public void " + p.validateMethodName() + "(String value, Problems problems) {", sb, 1);
+                    params.indent("if (!metrics.isEnabled()) {", sb, 2);
+                    params.indent(p.unmeasuredValidateMethodName() + "(value, problems);", sb, 3);
+                    params.indent("return;", sb, 3);
+                    params.indent("}", sb, 2);
+                    params.indent("Object span = metrics.validating(" + params.srcClassName + ".class, \"" + name + "\");", sb, 2);
+                    params.indent("long start = System.nanoTime();", sb, 2);
+                    // Collect separately only if an earlier failure would hide
+                    // whether this parameter's validators failed
+                    params.indent("boolean clean = !problems.hasFatal();", sb, 2);
+                    params.indent("Problems found = clean ? problems : new Problems();", sb, 2);
+                    params.indent(p.unmeasuredValidateMethodName() + "(value, found);", sb, 2);
+                    params.indent("metrics.validated(span, " + params.srcClassName + ".class, \"" + name
+                            + "\", !found.hasFatal(), System.nanoTime() - start);", sb, 2);
+                    params.indent("if (!clean) {", sb, 2);
+                    params.indent("problems.addAll(found);", sb, 3);
+                    params.indent("}", sb, 2);
+                    params.indent("}", sb, 1);
+                    sb.append('\n');
+                    params.indent("private void " + p.unmeasuredValidateMethodName() + "(String value, Problems problems) {", sb, 1);
+                    if (p.cachesValidation(params.validators)) {
+                        params.indent(p.cacheFieldName() + ".validate(value, problems);", sb, 2);
+                        params.indent("}", sb, 1);
+                        sb.append('\n');
+                        params.indent("private void " + p.uncachedValidateMethodName() + "(String value, Problems problems) {", sb, 1);
+                    }
+                    for (StringValidators v : p.param.constraints()) {
+                        params.indent(v.name() + ".validate(problems, \"" + name + "\", value);", sb, 2);
+                    }
+                    List<String> validatorTypes = params.validators.get(name);
+                    if (validatorTypes != null) {
+                        for (int i = 0; i < validatorTypes.size(); i++) {
+                            params.indent(p.fieldName() + "Validator" + (i + 1) + ".validate(problems, \"" + name + "\", value);", sb, 2);
+                        }
+                    }
+                    params.indent("}", sb, 1);
+                    sb.append('\n');
+                    params.indent("private Problems " + p.constraintFailuresMethodName() + "(String value) {", sb, 1);
+                    params.indent("Problems problems = new Problems();", sb, 2);
+                    params.indent(p.validateMethodName() + "(value, problems);", sb, 2);
+                    params.indent("return problems.hasFatal() ? problems : null;", sb, 2);
+                    params.indent("}", sb, 1);
+                }
+                sb.append("}\n");
+            } catch (Exception e) {
+                sb.append(e);
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Emit the type check of the Problems paths, which passes a failure
+         * to the metrics as it adds the message; constraints, if any, only
+         * run on a value of the right type, as with a ValidationSink.
+         */
+        private void checkType(GeneratedParamsClass.GeneratedParameter p, String var, String stringValue,
+                String validate, StringBuilder sb, int level) {
+            String typeName = p.param.type().name();
+            params.indent("if (!TypeValidation.isValid(Types." + typeName + ", " + var + ")) {", sb, level);
+            params.indent(typeValidatorField(typeName) + ".validate(problems, \"" + p.param.value() + "\", " + stringValue + ");", sb, level + 1);
+            params.indent("failed(\"" + p.param.value() + "\", FailureKind.INVALID_TYPE);", sb, level + 1);
+            if (validate != null) {
+                params.indent("} else {", sb, level);
+                params.indent(validate, sb, level + 1);
+            }
+            params.indent("}", sb, level);
+        }
+
+        /**
+         * Emit the constraint checks of check(KeysValues, ValidationSink), on
+         * locals named for each parameter holding its value, or null to skip
+         * it.
+         */
+        private void constraintChecks(List<GeneratedParamsClass.GeneratedParameter> constrained, StringBuilder sb) {
+            for (GeneratedParamsClass.GeneratedParameter p : constrained) {
+                String var = p.fieldName();
+                // The problems found are handed to the sink, so its
+                // messages never need the validators run again
+                params.indent("if (" + var + " != null) {", sb, 2);
+                params.indent("Problems __found = " + p.constraintFailuresMethodName() + "(" + var + ".toString());", sb, 3);
+                params.indent("if (__found != null && !sink.failed(" + p.index + ", " + var + ", __found)) {", sb, 3);
+                params.indent("return false;", sb, 4);
+                params.indent("}", sb, 3);
+                params.indent("}", sb, 2);
+            }
+        }
+
+        private void failure(GeneratedParamsClass.GeneratedParameter p, String kind, String value, StringBuilder sb, int level) {
+            params.indent("if (!sink.failed(" + p.index + ", FailureKind." + kind + ", " + value + ")) {", sb, level);
+            params.indent("return false;", sb, level + 1);
+            params.indent("}", sb, level);
+        }
+    }
+
+    private final class GeneratedJsonModuleClass {
+
+        private final GeneratedParamsClass params;
+
+        GeneratedJsonModuleClass(GeneratedParamsClass params) {
+            this.params = params;
+        }
+
+        String className() {
+            return params.jsonModuleClassName();
+        }
+
+        private String parseCall(GeneratedParamsClass.GeneratedParameter p) {
+            switch (p.param.type()) {
+                case BOOLEAN:
+                    return "_parseBooleanPrimitive(p, ctxt)";
+                case INTEGER:
+                case NON_NEGATIVE_INTEGER:
+                    return "_parseIntPrimitive(p, ctxt)";
+                case LONG:
+                case NON_NEGATIVE_LONG:
+                    return "_parseLongPrimitive(p, ctxt)";
+                case DOUBLE:
+                    return "_parseDoublePrimitive(p, ctxt)";
+                default:
+                    return "_parseString(p, ctxt)";
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(1024);
+            try {
+                String type = params.className;
+                sb.append("package ").append(params.packageName).append(";\n\n");
+                List<String> imports = new LinkedList<>();
+                imports.add("com.fasterxml.jackson.core.JsonGenerator");
+                imports.add("com.fasterxml.jackson.core.JsonParser");
+                imports.add("com.fasterxml.jackson.core.JsonToken");
+                imports.add("com.fasterxml.jackson.databind.DeserializationContext");
+                imports.add("com.fasterxml.jackson.databind.SerializerProvider");
+                imports.add("com.fasterxml.jackson.databind.deser.std.StdDeserializer");
+                imports.add("com.fasterxml.jackson.databind.module.SimpleModule");
+                imports.add("com.fasterxml.jackson.databind.ser.std.StdSerializer");
+                imports.add("java.io.IOException");
+                if (params.anySetter) {
+                    imports.add("java.util.HashMap");
+                    imports.add("java.util.Map");
+                }
+                if (params.methods.stream().anyMatch(GeneratedParamsClass.GeneratedParameter::isOptional)) {
+                    imports.add(optionalType);
+                }
+                Collections.sort(imports);
+                for (String s : imports) {
+                    sb.append("import ").append(s).append(";\n");
+                }
+                sb.append("\n/** \n    Reads and writes ").append(type)
+                        .append(" without reflection, generated from the &#064;Param annotations on ")
+                        .append(params.srcClassName).append("\n*/\n");
+                sb.append("public final class ").append(className()).append(" extends SimpleModule {\n\n");
+                params.indent("public " + className() + "() {", sb, 1);
+                params.indent("super(\"" + className() + "\");", sb, 2);
+                params.indent("addSerializer(" + type + ".class, new Serializer());", sb, 2);
+                params.indent("addDeserializer(" + type + ".class, new Deserializer());", sb, 2);
+                params.indent("}\n", sb, 1);
+
+                params.indent("public static final class Serializer extends StdSerializer<" + type + "> {\n", sb, 1);
+                params.indent("public Serializer() {", sb, 2);
+                params.indent("super(" + type + ".class);", sb, 3);
+                params.indent("}\n", sb, 2);
+                params.indent("@Override", sb, 2);
+                params.indent("public void serialize(" + type + " value, JsonGenerator gen, SerializerProvider provider) throws IOException {", sb, 2);
+                params.indent("value.writeJson(gen);", sb, 3);
+                params.indent("}", sb, 2);
+                params.indent("}\n", sb, 1);
+
+                params.indent("public static final class Deserializer extends StdDeserializer<" + type + "> {\n", sb, 1);
+                params.indent("public Deserializer() {", sb, 2);
+                params.indent("super(" + type + ".class);", sb, 3);
+                params.indent("}\n", sb, 2);
+                params.indent("@Override", sb, 2);
+                params.indent("public " + type + " deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {", sb, 2);
+                params.indent("JsonToken tok = p.currentToken();", sb, 3);
+                params.indent("if (tok == JsonToken.START_OBJECT) {", sb, 3);
+                params.indent("tok = p.nextToken();", sb, 4);
+                params.indent("} else if (tok != JsonToken.FIELD_NAME && tok != JsonToken.END_OBJECT) {", sb, 3);
+                params.indent("return (" + type + ") ctxt.handleUnexpectedToken(" + type + ".class, p);", sb, 4);
+                params.indent("}", sb, 3);
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    p.localDeclaration(sb, 3);
+                    if (p.isRequired()) {
+                        params.indent("boolean __has" + p.fieldName() + " = false;", sb, 3);
+                    }
+                }
+                if (params.anySetter) {
+                    params.indent("Map<String,String> __metadata = null;", sb, 3);
+                }
+                params.indent("for (; tok == JsonToken.FIELD_NAME; tok = p.nextToken()) {", sb, 3);
+                params.indent("String name = p.currentName();", sb, 4);
+                params.indent("boolean isNull = p.nextToken() == JsonToken.VALUE_NULL;", sb, 4);
+                params.indent("switch (name) {", sb, 4);
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    params.indent("case \"" + p.param.value() + "\":", sb, 5);
+                    if (p.isRequired()) {
+                        params.indent("__has" + p.fieldName() + " = true;", sb, 6);
+                    }
+                    params.indent("if (!isNull) {", sb, 6);
+                    params.indent(p.fieldName() + " = " + parseCall(p) + ";", sb, 7);
+                    params.indent("}", sb, 6);
+                    params.indent("break;", sb, 6);
+                }
+                params.indent("default:", sb, 5);
+                if (params.anySetter) {
+                    params.indent("if (__metadata == null) {", sb, 6);
+                    params.indent("__metadata = new HashMap<>();", sb, 7);
+                    params.indent("}", sb, 6);
+                    params.indent("__metadata.put(name, isNull ? null : _parseString(p, ctxt));", sb, 6);
+                } else {
+                    params.indent("ctxt.handleUnknownProperty(p, this, " + type + ".class, name);", sb, 6);
+                }
+                params.indent("}", sb, 4);
+                params.indent("}", sb, 3);
+                for (GeneratedParamsClass.GeneratedParameter p : params.methods) {
+                    if (p.isRequired()) {
+                        params.indent("if (!__has" + p.fieldName() + ") {", sb, 3);
+                        params.indent("return ctxt.reportInputMismatch(this, \"Missing required creator property '%s'\", \""
+                                + p.param.value() + "\");", sb, 4);
+                        params.indent("}", sb, 3);
+                    }
+                }
+                params.indent(type + " result = new " + type + "(" + params.allFieldsArguments() + ");", sb, 3);
+                if (params.anySetter) {
+                    params.indent("if (__metadata != null) {", sb, 3);
+                    params.indent("for (Map.Entry<String,String> e : __metadata.entrySet()) {", sb, 4);
+                    params.indent("result.__any(e.getKey(), e.getValue());", sb, 5);
+                    params.indent("}", sb, 4);
+                    params.indent("}", sb, 3);
+                }
+                params.indent("return result;", sb, 3);
+                params.indent("}", sb, 2);
+                params.indent("}", sb, 1);
+                sb.append("}\n");
+            } catch (Exception e) {
+                sb.append(e);
+            }
+            return sb.toString();
+        }
+    }
 }
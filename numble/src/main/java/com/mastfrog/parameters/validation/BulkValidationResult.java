@@ -0,0 +1,242 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validation;
+
+import com.mastfrog.parameters.KeysValues;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * Results of validating a batch of records with ParamChecker.checkAll().
+ * Only invalid records are stored, each as a ValidationResult keyed by the
+ * record's position in the batch, so a batch of millions of mostly-valid
+ * records costs little memory.
+ *
+ * @author Tim Boudreau
+ */
+public final class BulkValidationResult {
+
+    private final long size;
+    private final long[] records;
+    private final ValidationResult[] results;
+
+    BulkValidationResult(long size, long[] records, ValidationResult[] results) {
+        this.size = size;
+        this.records = records;
+        this.results = results;
+    }
+
+    /**
+     * Get the number of records checked.
+     *
+     * @return The number of records
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Determine if every record was valid.
+     *
+     * @return true if no record had problems
+     */
+    public boolean isValid() {
+        return records.length == 0;
+    }
+
+    /**
+     * Determine if a record was valid.
+     *
+     * @param record The record's position in the batch
+     * @return true if it had no problems
+     */
+    public boolean isValid(long record) {
+        checkBounds(record);
+        return Arrays.binarySearch(records, record) < 0;
+    }
+
+    /**
+     * Get the result for a record.
+     *
+     * @param record The record's position in the batch
+     * @return The result, or null if the record was valid
+     */
+    public ValidationResult result(long record) {
+        checkBounds(record);
+        int ix = Arrays.binarySearch(records, record);
+        return ix < 0 ? null : results[ix];
+    }
+
+    /**
+     * Get the number of invalid records.
+     *
+     * @return The count
+     */
+    public int invalidCount() {
+        return records.length;
+    }
+
+    /**
+     * Get the position in the batch of the nth invalid record; invalid
+     * records are in the order they appeared in the batch.
+     *
+     * @param n A number from 0 to invalidCount() - 1
+     * @return The record's position in the batch
+     */
+    public long invalidRecord(int n) {
+        return records[n];
+    }
+
+    /**
+     * Get the result for the nth invalid record.
+     *
+     * @param n A number from 0 to invalidCount() - 1
+     * @return The result
+     */
+    public ValidationResult invalidResult(int n) {
+        return results[n];
+    }
+
+    private void checkBounds(long record) {
+        if (record < 0 || record >= size) {
+            throw new IndexOutOfBoundsException(record + " of " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append(records.length)
+                .append(" of ").append(size).append(" records invalid");
+        for (int i = 0; i < records.length && i < 10; i++) {
+            sb.append("\n").append(records[i]).append(": ").append(results[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Validates records from a spliterator, forking subtasks for the prefixes
+     * it splits off, whether or not their size is known. Each task numbers
+     * its records from zero; when parts are joined, in encounter order, each
+     * part's numbers are offset by the count of records before it, so
+     * record numbers stay sorted.
+     */
+    static final class Task extends RecursiveTask<Chunk> {
+
+        private final ValidationPlan plan;
+        private final Spliterator<? extends KeysValues> records;
+        private final long threshold;
+
+        Task(ValidationPlan plan, Spliterator<? extends KeysValues> records, long threshold) {
+            this.plan = plan;
+            this.records = records;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Chunk compute() {
+            List<Task> parts = null;
+            Spliterator<? extends KeysValues> prefix;
+            while (records.estimateSize() > threshold && (prefix = records.trySplit()) != null) {
+                if (parts == null) {
+                    parts = new ArrayList<>();
+                }
+                Task task = new Task(plan, prefix, threshold);
+                task.fork();
+                parts.add(task);
+            }
+            Chunk result = new Chunk(plan);
+            records.forEachRemaining(result);
+            if (parts == null) {
+                return result;
+            }
+            Chunk tail = result;
+            result = new Chunk(plan);
+            for (Task task : parts) {
+                result.append(task.join());
+            }
+            return result.append(tail);
+        }
+    }
+
+    /**
+     * Invalid records found by one task, in order.
+     */
+    static final class Chunk implements Consumer<KeysValues> {
+
+        private final ValidationPlan plan;
+        long index;
+        long[] records = new long[0];
+        ValidationResult[] results = new ValidationResult[0];
+        int count;
+        private ValidationResult current;
+
+        Chunk(ValidationPlan plan) {
+            this.plan = plan;
+        }
+
+        @Override
+        public void accept(KeysValues record) {
+            if (current == null) {
+                current = plan.newResult();
+            }
+            plan.check(record, current);
+            if (!current.isValid()) {
+                add(index, current);
+                current = null;
+            }
+            index++;
+        }
+
+        private void add(long record, ValidationResult result) {
+            if (count == records.length) {
+                int newSize = Math.max(8, count * 2);
+                records = Arrays.copyOf(records, newSize);
+                results = Arrays.copyOf(results, newSize);
+            }
+            records[count] = record;
+            results[count++] = result;
+        }
+
+        /**
+         * Append the records of a chunk which followed this one, offsetting
+         * their numbers by the count of records in this one.
+         */
+        Chunk append(Chunk other) {
+            for (int i = 0; i < other.count; i++) {
+                add(index + other.records[i], other.results[i]);
+            }
+            index += other.index;
+            return this;
+        }
+
+        BulkValidationResult toResult() {
+            return new BulkValidationResult(index, Arrays.copyOf(records, count),
+                    Arrays.copyOf(results, count));
+        }
+    }
+}
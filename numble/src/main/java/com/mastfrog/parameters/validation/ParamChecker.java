@@ -25,42 +25,58 @@ package com.mastfrog.parameters.validation;
 
 import com.google.inject.Injector;
 import com.mastfrog.parameters.KeysValues;
-import com.mastfrog.parameters.Param;
-import com.mastfrog.parameters.Params;
-import com.mastfrog.parameters.TypeValidation;
-import com.mastfrog.parameters.Types;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
+import javax.inject.Singleton;
 import org.netbeans.validation.api.Problems;
-import org.netbeans.validation.api.Validator;
-import org.netbeans.validation.api.builtin.stringvalidation.StringValidators;
 
 /**
  * Validates the parameters that will passed to a page, to ensure they conform
  * to constraints specified in its PageParameters.
+ * <p>
+ * The &#064;Params annotation of each type is compiled once, on first use, into
+ * an immutable plan which holds the validators it needs; subsequent checks
+ * against that type reuse it.
  *
  * @author Tim Boudreau
  */
+@Singleton
 public class ParamChecker {
 
+    private static final ValidationSink STOP = (index, kind, value) -> false;
+    private static final long BULK_BATCH = 1024;
     private final Injector injector;
     private final ParamsWhitelist whitelist;
+    private final ValidationMetrics metrics;
+    private final ClassValue<ValidationPlan> plans = new ClassValue<ValidationPlan>() {
+        @Override
+        protected ValidationPlan computeValue(Class<?> type) {
+            return ValidationPlan.create(type, injector, whitelist, metrics);
+        }
+    };
 
     /**
      * Create a new ParamChecker (you should ask for it to be injected).
      *
      * @param injector The Injector which will be used
-     * to instantiate validators
+     * to instantiate validators; the ParamsWhitelist and ValidationMetrics
+     * bound in it are looked up here, once
      */
     @Inject
     public ParamChecker(Injector injector) {
         this.injector = injector;
         whitelist = injector.getInstance(ParamsWhitelist.class);
+        metrics = injector.getInstance(ValidationMetrics.class);
     }
 
     /**
@@ -82,103 +98,267 @@ public class ParamChecker {
      * @param problems A list of problems to populate if something is wrong
      */
     public void check(Class<?> declaringType, KeysValues params, Problems problems) {
-        Params parameters = declaringType.getAnnotation(Params.class);
-        if (parameters == null) {
+        ValidationPlan plan = plans.get(declaringType);
+        check(plan, params, problems, plan.failFast);
+    }
+
+    /**
+     * Check the parameters that would be passed to a page of the passed type,
+     * overriding the <code>failFast</code> setting of its &#064;Params.
+     *
+     * @param declaringType Object type
+     * @param params The parameters
+     * @param problems A list of problems to populate if something is wrong
+     * @param failFast If true, report only the first problem found, running
+     * presence and type checks before constraints and custom validators
+     */
+    public void check(Class<?> declaringType, KeysValues params, Problems problems, boolean failFast) {
+        check(plans.get(declaringType), params, problems, failFast);
+    }
+
+    private static void check(ValidationPlan plan, KeysValues params, Problems problems, boolean failFast) {
+        if (!plan.measured()) {
+            plan.check(params, problems, failFast);
             return;
         }
-        Map<String, ValidatorSet> setForKey = new HashMap<>();
-        Set<String> constrainedKeys = new HashSet<>();
-        for (Param p : parameters.value()) {
-            boolean isRequired = p.required() && "".equals(p.defaultValue());
-            if (!isRequired) {
-                continue;
-            }
-            constrainedKeys.add(p.value());
-            ValidatorSet ps = setForKey.get(p.value());
-            if (ps == null) {
-                ps = new ValidatorSet().add(PRESENT_VALIDATOR);
-                setForKey.put(p.value(), ps);
-            }
-            if (p.type() != Types.STRING) {
-                ps.add(TypeValidation.validator(p.type()));
-            }
-            for (StringValidators v : p.constraints()) {
-                ps.add(v);
-            }
-            for (Class<? extends Validator<String>> validatorType : p.validators()) {
-                Validator<String> v = injector.getInstance(validatorType);
-                ps.add(v);
-            }
+        Object span = plan.checking();
+        long start = System.nanoTime();
+        if (!problems.hasFatal()) {
+            plan.check(params, problems, failFast);
+            plan.checked(span, !problems.hasFatal(), start);
+            return;
         }
-        for (Param p : parameters.value()) {
-            boolean isRequired = p.required() && "".equals(p.defaultValue());
-            if (isRequired) {
-                continue;
-            }
-            constrainedKeys.add(p.value());
-            if (params.keySet().contains(p.value())) {
-                ValidatorSet ps = setForKey.get(p.value());
-                if (ps == null) {
-                    ps = new ValidatorSet();
-                    setForKey.put(p.value(), ps);
-                }
-                if (p.type() != Types.STRING) {
-                    ps.add(TypeValidation.validator(p.type()));
-                }
-                for (StringValidators v : p.constraints()) {
-                    ps.add(v);
-                }
-                for (Class<? extends Validator<String>> validatorType : p.validators()) {
-                    Validator<String> v = injector.getInstance(validatorType);
-                    ps.add(v);
-                }
-            }
+        Problems found = new Problems();
+        plan.check(params, found, failFast);
+        plan.checked(span, !found.hasFatal(), start);
+        problems.addAll(found);
+    }
+
+    /**
+     * Fast path: determine whether the parameters are valid for a type,
+     * stopping at the first failure and without formatting any messages.
+     *
+     * @param declaringType Object type
+     * @param params The parameters
+     * @return true if check() would report no problems
+     */
+    public boolean isValid(Class<?> declaringType, KeysValues params) {
+        ValidationPlan plan = plans.get(declaringType);
+        if (!plan.measured()) {
+            return plan.check(params, STOP);
         }
-        for (Map.Entry<String, ValidatorSet> e : setForKey.entrySet()) {
-            String key = e.getKey();
-            String val = params.get(key);
-            ValidatorSet s = e.getValue();
-            s.check(key, val, problems, params);
+        Object span = plan.checking();
+        long start = System.nanoTime();
+        boolean result = plan.check(params, STOP);
+        plan.checked(span, result, start);
+        return result;
+    }
+
+    /**
+     * Check parameters, recording any failures in compact form; messages are
+     * only formatted if the result is asked for them. If the &#064;Params
+     * specifies <code>failFast</code>, only the first failure is recorded.
+     *
+     * @param declaringType Object type
+     * @param params The parameters
+     * @return A result
+     */
+    public ValidationResult validate(Class<?> declaringType, KeysValues params) {
+        ValidationPlan plan = plans.get(declaringType);
+        ValidationResult result = plan.newResult();
+        boolean measured = plan.measured();
+        Object span = measured ? plan.checking() : null;
+        long start = measured ? System.nanoTime() : 0;
+        plan.check(params, result);
+        if (measured) {
+            plan.checked(span, result.isValid(), start);
         }
-        if (!parameters.allowUnlistedParameters()) {
-            Set<String> presentParams = new HashSet<>(params.keySet());
-            presentParams.removeAll(constrainedKeys);
-            presentParams.removeAll(whitelist.names());
-            if (!presentParams.isEmpty()) {
-                problems.append("Parameters contains unknown keys: " + presentParams);
-            }
+        return result;
+    }
+
+    /**
+     * Validate parameters already known to be present and of the right type
+     * - for example ones a generated class's <code>tryCreate()</code> has
+     * just converted - running only constraints, custom validators and the
+     * check for unknown parameters, and recording failures as validate()
+     * does.
+     *
+     * @param declaringType Object type
+     * @param params The parameters
+     * @return A result
+     */
+    public ValidationResult validateConstraints(Class<?> declaringType, KeysValues params) {
+        ValidationPlan plan = plans.get(declaringType);
+        ValidationResult result = plan.newResult();
+        boolean measured = plan.measured();
+        Object span = measured ? plan.checking() : null;
+        long start = measured ? System.nanoTime() : 0;
+        plan.checkConstraints(params, result);
+        if (measured) {
+            plan.checked(span, result.isValid(), start);
         }
+        return result;
+    }
+
+    /**
+     * Validate a batch of records in parallel on the common fork-join pool,
+     * as validate() would validate each one.
+     *
+     * @param declaringType Object type
+     * @param records The records
+     * @return The results, indexed by each record's position in the batch
+     */
+    public BulkValidationResult checkAll(Class<?> declaringType, Iterable<? extends KeysValues> records) {
+        return checkAll(declaringType, records.spliterator(), ForkJoinPool.commonPool());
     }
 
-    private static final Validator<String> PRESENT_VALIDATOR = new PresentValidator();
+    /**
+     * Validate a batch of records in parallel, as validate() would validate
+     * each one. The batch is divided by splitting the spliterator, so one
+     * which splits evenly (as with an ArrayList or array) spreads the work
+     * most evenly, but every part it splits off runs in parallel. Each
+     * record must be safe to read from a thread other than the caller's,
+     * but is only read by one thread.
+     *
+     * @param declaringType Object type
+     * @param records The records
+     * @param pool The pool to run on
+     * @return The results, indexed by each record's position in the batch
+     */
+    public BulkValidationResult checkAll(Class<?> declaringType, Spliterator<? extends KeysValues> records, ForkJoinPool pool) {
+        long size = records.estimateSize();
+        // Enough pieces per thread to even out differences in record cost
+        long threshold = size == Long.MAX_VALUE ? BULK_BATCH
+                : Math.max(BULK_BATCH / 8, size / (pool.getParallelism() * 8L));
+        return pool.invoke(new BulkValidationResult.Task(plans.get(declaringType), records, threshold))
+                .toResult();
+    }
 
-    static class PresentValidator implements Validator<String> {
+    /**
+     * Check parameters without blocking on any AsyncValidators, which run
+     * on virtual threads where the JDK has them, and otherwise on a pool of
+     * 64 daemon threads with a queue of 1024 validations; if that queue is
+     * full, the future completes exceptionally with a
+     * RejectedExecutionException - the calling thread never blocks.
+     * Everything else is checked on the calling thread before this method
+     * returns. Pass an executor to control this.
+     *
+     * @param declaringType Object type
+     * @param params The parameters
+     * @return A future which completes with any problems found
+     */
+    public CompletableFuture<Problems> checkAsync(Class<?> declaringType, KeysValues params) {
+        return checkAsync(declaringType, params, AsyncExecutor.INSTANCE);
+    }
 
-        @Override
-        public void validate(Problems problems, String key, String model) {
-            if (model == null) {
-                problems.append("Missing " + key);
-            }
+    /**
+     * Check parameters without blocking on any AsyncValidators, which run
+     * on the passed executor. Everything else is checked on the calling
+     * thread before this method returns; if the type has no AsyncValidators
+     * the returned future is already complete.
+     *
+     * @param declaringType Object type
+     * @param params The parameters, which must remain readable until the
+     * future completes
+     * @param executor The executor blocking validators run on; if it
+     * rejects a validator, the future completes exceptionally with the
+     * RejectedExecutionException
+     * @return A future which completes with any problems found
+     */
+    public CompletableFuture<Problems> checkAsync(Class<?> declaringType, KeysValues params, Executor executor) {
+        ValidationPlan plan = plans.get(declaringType);
+        if (!plan.measured()) {
+            return plan.checkAsync(params, executor);
         }
+        Object span = plan.checking();
+        long start = System.nanoTime();
+        return plan.checkAsync(params, executor).whenComplete((problems, thrown) -> {
+            plan.checked(span, problems != null && !problems.hasFatal(), start);
+        });
+    }
 
-        @Override
-        public Class<String> modelType() {
-            return String.class;
+    /**
+     * Check parameters, passing any failures to a sink.
+     *
+     * @param declaringType Object type
+     * @param params The parameters
+     * @param sink The sink, which may stop the check by returning false
+     * @return false if the sink stopped the check
+     */
+    public boolean check(Class<?> declaringType, KeysValues params, ValidationSink sink) {
+        ValidationPlan plan = plans.get(declaringType);
+        if (!plan.measured()) {
+            return plan.check(params, sink);
         }
+        Object span = plan.checking();
+        long start = System.nanoTime();
+        boolean[] failed = new boolean[1];
+        boolean result = plan.check(params, new ValidationSink() {
+            @Override
+            public boolean failed(int index, FailureKind kind, Object value) {
+                failed[0] = true;
+                return sink.failed(index, kind, value);
+            }
+
+            @Override
+            public boolean failed(int index, Object value, Problems problems) {
+                failed[0] = true;
+                return sink.failed(index, value, problems);
+            }
+        });
+        plan.checked(span, !failed[0], start);
+        return result;
+    }
+
+    /**
+     * Get the cache of validation outcomes for a parameter marked
+     * <code>cacheValidation</code>, for example to read its hit and miss
+     * counts.
+     *
+     * @param declaringType Object type
+     * @param param The parameter name
+     * @return The cache, or null if the parameter does not have one
+     */
+    public ValidationCache validationCache(Class<?> declaringType, String param) {
+        return plans.get(declaringType).validationCache(param);
     }
 
-    private static class ValidatorSet {
+    /**
+     * Begin checking parameters for a type one at a time, without a map
+     * of them.
+     *
+     * @param declaringType Object type
+     * @param problems A list of problems to populate if something is wrong
+     * @return A check which validates values as they are passed to it
+     */
+    public StreamingCheck startCheck(Class<?> declaringType, Problems problems) {
+        return new StreamingCheck(plans.get(declaringType), problems);
+    }
 
-        List<Validator<String>> validators = new LinkedList<>();
+    private static final class AsyncExecutor {
 
-        public ValidatorSet add(Validator<String> validator) {
-            validators.add(validator);
-            return this;
-        }
+        private static final int THREADS = 64;
+        private static final int QUEUE = 1024;
+        // Lazily created, so nothing is started unless something is
+        // validated asynchronously
+        static final ExecutorService INSTANCE = create();
 
-        public void check(String key, String value, Problems problems, KeysValues in) {
-            for (Validator<String> v : validators) {
-                v.validate(problems, key, value);
+        private static ExecutorService create() {
+            try {
+                return (ExecutorService) MethodHandles.publicLookup().findStatic(Executors.class,
+                        "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                        .invoke();
+            } catch (Throwable notJdk21) {
+                // When the queue is full, validations are rejected rather than
+                // queued without limit or run on the caller's thread
+                ThreadPoolExecutor result = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(QUEUE), r -> {
+                            Thread t = new Thread(r, "numble-async-validation");
+                            t.setDaemon(true);
+                            return t;
+                        }, new ThreadPoolExecutor.AbortPolicy());
+                result.allowCoreThreadTimeOut(true);
+                return result;
             }
         }
     }
@@ -39,6 +39,10 @@ import java.util.Set;
  * <p/>
  * This object should be made available in the Guice injector passed to
  * ParamsChecker's constructor.
+ * <p/>
+ * The set of names is fixed once the whitelist is created; ParamChecker
+ * reads it once, when it first checks each type, so a whitelist cannot be
+ * changed or replaced afterwards - bind the complete set up front.
  *
  * @author Tim Boudreau
  */
@@ -0,0 +1,236 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Singleton;
+
+/**
+ * ValidationMetrics which keeps counts and latency histograms in memory, per
+ * &#064;Params type and per parameter, for reading by a monitoring endpoint
+ * or a test. To use it, bind ValidationMetrics to it:
+ * <pre>
+ * bind(ValidationMetrics.class).to(RecordingValidationMetrics.class);
+ * </pre>
+ *
+ * @author Tim Boudreau
+ */
+@Singleton
+public class RecordingValidationMetrics implements ValidationMetrics {
+
+    private final Map<Class<?>, TypeStats> types = new ConcurrentHashMap<>();
+
+    @Override
+    public void checked(Class<?> paramsType, boolean valid, long nanos) {
+        stats(paramsType).record(valid, nanos);
+    }
+
+    @Override
+    public void validated(Class<?> paramsType, String param, boolean valid, long nanos) {
+        TypeStats type = stats(paramsType);
+        Stats stats = type.parameter(param);
+        stats.record(valid, nanos);
+        if (!valid) {
+            stats.failures[FailureKind.CONSTRAINT.ordinal()].increment();
+            type.failures[FailureKind.CONSTRAINT.ordinal()].increment();
+        }
+    }
+
+    @Override
+    public void failed(Class<?> paramsType, String param, FailureKind kind) {
+        TypeStats type = stats(paramsType);
+        type.failures[kind.ordinal()].increment();
+        if (param != null) {
+            type.parameter(param).failures[kind.ordinal()].increment();
+        }
+    }
+
+    private TypeStats stats(Class<?> paramsType) {
+        TypeStats result = types.get(paramsType);
+        return result != null ? result : types.computeIfAbsent(paramsType, ignored -> new TypeStats());
+    }
+
+    /**
+     * Get the types anything has been recorded for.
+     *
+     * @return The types
+     */
+    public Set<Class<?>> types() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    /**
+     * Get the statistics for whole checks of a type: the latency of each
+     * check, and failures of every kind on any of its parameters.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @return The statistics, empty if nothing was recorded
+     */
+    public Stats typeStats(Class<?> paramsType) {
+        TypeStats result = types.get(paramsType);
+        return result == null ? new Stats() : result;
+    }
+
+    /**
+     * Get the statistics for one parameter: how often and for how long its
+     * validators ran, and its failures.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @param param The parameter name
+     * @return The statistics, empty if nothing was recorded
+     */
+    public Stats parameterStats(Class<?> paramsType, String param) {
+        TypeStats type = types.get(paramsType);
+        Stats result = type == null ? null : type.parameters.get(param);
+        return result == null ? new Stats() : result;
+    }
+
+    /**
+     * Get the statistics for each parameter of a type which anything has
+     * been recorded for.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @return The statistics by parameter name
+     */
+    public Map<String, Stats> parameterStats(Class<?> paramsType) {
+        TypeStats type = types.get(paramsType);
+        return type == null ? Collections.emptyMap() : Collections.unmodifiableMap(type.parameters);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        types.forEach((type, stats) -> {
+            sb.append(type.getName()).append(": ").append(stats).append('\n');
+            stats.parameters.forEach((name, param) -> {
+                sb.append("  ").append(name).append(": ").append(param).append('\n');
+            });
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Counts and latencies for a type or parameter.
+     */
+    public static class Stats {
+
+        private final LongAdder checks = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        final LongAdder[] failures = new LongAdder[FailureKind.values().length];
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        Stats() {
+            for (int i = 0; i < failures.length; i++) {
+                failures[i] = new LongAdder();
+            }
+        }
+
+        void record(boolean valid, long nanos) {
+            checks.increment();
+            if (!valid) {
+                rejected.increment();
+            }
+            latency.record(nanos);
+        }
+
+        /**
+         * Get the number of times this was checked.
+         *
+         * @return The count
+         */
+        public long checks() {
+            return checks.sum();
+        }
+
+        /**
+         * Get the number of checks which found the input invalid. Unlike
+         * failures(), this counts each check once however many problems
+         * it found.
+         *
+         * @return The count
+         */
+        public long rejected() {
+            return rejected.sum();
+        }
+
+        /**
+         * Get the number of failures of one kind.
+         *
+         * @param kind The kind
+         * @return The count
+         */
+        public long failures(FailureKind kind) {
+            return failures[kind.ordinal()].sum();
+        }
+
+        /**
+         * Get the number of failures of any kind.
+         *
+         * @return The count
+         */
+        public long failures() {
+            long result = 0;
+            for (LongAdder failure : failures) {
+                result += failure.sum();
+            }
+            return result;
+        }
+
+        /**
+         * Get the latency of each check.
+         *
+         * @return The histogram
+         */
+        public LatencyHistogram latency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("checks=").append(checks())
+                    .append(" rejected=").append(rejected());
+            for (FailureKind kind : FailureKind.values()) {
+                long count = failures(kind);
+                if (count > 0) {
+                    sb.append(' ').append(kind.name().toLowerCase()).append('=').append(count);
+                }
+            }
+            return sb.append(' ').append(latency).toString();
+        }
+    }
+
+    private static final class TypeStats extends Stats {
+
+        private final Map<String, Stats> parameters = new ConcurrentHashMap<>();
+
+        Stats parameter(String name) {
+            Stats result = parameters.get(name);
+            return result != null ? result : parameters.computeIfAbsent(name, ignored -> new Stats());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Incremental form of ParamChecker.check(), for callers which encounter
+ * parameters one at a time - such as while streaming a request body - and
+ * do not want to build a map of them first. Each value is validated as it
+ * is passed in; missing and unknown parameters are reported by
+ * <code>finish()</code>. Not thread-safe; obtain one per check from
+ * ParamChecker.startCheck(). If ValidationMetrics are enabled, the time
+ * from then until <code>finish()</code> is recorded as the time of the
+ * check.
+ *
+ * @author Tim Boudreau
+ */
+public final class StreamingCheck {
+
+    private final ValidationPlan plan;
+    private final Problems problems;
+    private final boolean[] seen;
+    private List<String> unknown;
+    private final boolean measured;
+    private final Object span;
+    private final long start;
+
+    StreamingCheck(ValidationPlan plan, Problems problems) {
+        this.plan = plan;
+        this.problems = problems;
+        this.seen = new boolean[plan.keys.length];
+        this.measured = plan.measured();
+        this.span = measured ? plan.checking() : null;
+        this.start = measured ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Validate a value.
+     *
+     * @param key The parameter name
+     * @param value The value; null is treated as absent
+     */
+    public void accept(String key, String value) {
+        if (value == null) {
+            return;
+        }
+        int index = plan.checkValue(key, value, problems);
+        if (index >= 0) {
+            seen[index] = true;
+        } else {
+            unlisted(key);
+        }
+    }
+
+    /**
+     * Note a value which is not a string, number or boolean (for example a
+     * nested JSON object or array); if the key is a declared parameter, that
+     * is a problem.
+     *
+     * @param key The parameter name
+     */
+    public void acceptStructured(String key) {
+        int index = plan.indexOf(key);
+        if (index >= 0) {
+            seen[index] = true;
+            problems.append(key + " must be a string, number or boolean");
+            plan.failed(key, FailureKind.INVALID_TYPE);
+        } else {
+            unlisted(key);
+        }
+    }
+
+    private void unlisted(String key) {
+        if (!plan.allowUnlisted && !plan.isPermitted(key)) {
+            if (unknown == null) {
+                unknown = new ArrayList<>(3);
+            }
+            unknown.add(key);
+        }
+    }
+
+    /**
+     * End the check, rejecting the input for a reason other than its
+     * parameters, such as a request body which is not a JSON object.
+     *
+     * @param problem The message
+     * @return The problems
+     */
+    public Problems reject(String problem) {
+        problems.append(problem);
+        if (measured) {
+            plan.checked(span, false, start);
+        }
+        return problems;
+    }
+
+    /**
+     * Report any required parameters which were not passed, and any
+     * unknown ones if the &#064;Params does not allow them.
+     *
+     * @return The problems
+     */
+    public Problems finish() {
+        for (int i = 0; i < seen.length; i++) {
+            if (!seen[i] && plan.required[i]) {
+                problems.append("Missing " + plan.keys[i]);
+                plan.failed(plan.keys[i], FailureKind.MISSING);
+            }
+        }
+        if (unknown != null) {
+            problems.append("Parameters contains unknown keys: " + unknown);
+            for (int i = 0; i < unknown.size(); i++) {
+                plan.failed(null, FailureKind.UNKNOWN);
+            }
+        }
+        if (measured) {
+            plan.checked(span, !problems.hasFatal(), start);
+        }
+        return problems;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validation;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import org.netbeans.validation.api.Problem;
+import org.netbeans.validation.api.Problems;
+import org.netbeans.validation.api.Validator;
+
+/**
+ * Bounded, thread-safe cache of the outcome of validating values of one
+ * parameter, used for parameters marked <code>cacheValidation</code>. A hit
+ * is a lock-free map read which at most sets a reference bit on the entry;
+ * only a miss takes a lock, to evict entries not referenced since the clock
+ * hand last passed them. Values longer than 1024 characters are validated
+ * but never cached, so the size bound also bounds memory.
+ *
+ * @author Tim Boudreau
+ */
+public final class ValidationCache implements Validator<String> {
+
+    private static final Problem[] VALID = new Problem[0];
+    private static final int MAX_CACHED_LENGTH = 1024;
+    private final String key;
+    private final BiConsumer<String, Problems> validator;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Entry> hand;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a cache.
+     *
+     * @param key The parameter name
+     * @param maxSize The maximum number of values to remember
+     * @param validator Runs the parameter's checks on a value, adding any
+     * problems found
+     */
+    public ValidationCache(String key, int maxSize, BiConsumer<String, Problems> validator) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be > 0: " + maxSize);
+        }
+        this.key = key;
+        this.validator = validator;
+        this.maxSize = maxSize;
+        entries = new ConcurrentHashMap<>(Math.min(maxSize, 64));
+    }
+
+    /**
+     * Validate a value, reusing the outcome for it if it has been seen
+     * before.
+     *
+     * @param value The value
+     * @param problems Problems to add to
+     */
+    public void validate(String value, Problems problems) {
+        if (value.length() > MAX_CACHED_LENGTH) {
+            misses.increment();
+            validator.accept(value, problems);
+            return;
+        }
+        Entry entry = entries.get(value);
+        Problem[] outcome;
+        if (entry == null) {
+            misses.increment();
+            Problems found = new Problems();
+            validator.accept(value, found);
+            outcome = found.allProblems().isEmpty() ? VALID
+                    : found.allProblems().toArray(new Problem[0]);
+            if (entries.putIfAbsent(value, new Entry(value, outcome)) == null
+                    && entries.size() > maxSize) {
+                evict();
+            }
+        } else {
+            hits.increment();
+            // Only write when the bit is clear, so hot entries are read-only
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            outcome = entry.outcome;
+        }
+        for (Problem p : outcome) {
+            problems.append(p);
+        }
+    }
+
+    @Override
+    public void validate(Problems problems, String compName, String model) {
+        validate(model, problems);
+    }
+
+    @Override
+    public Class<String> modelType() {
+        return String.class;
+    }
+
+    private void evict() {
+        evictionLock.lock();
+        try {
+            // Each entry referenced since the hand last passed it gets a
+            // second chance; the first one not referenced is removed
+            while (entries.size() > maxSize) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.values().iterator();
+                }
+                Entry candidate = hand.next();
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                } else {
+                    entries.remove(candidate.value, candidate);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Get the name of the parameter this cache is for.
+     *
+     * @return The name
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Get the number of values whose outcome was found in the cache.
+     *
+     * @return The count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of values which had to be validated.
+     *
+     * @return The count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of values currently cached.
+     *
+     * @return The count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Discard all cached outcomes, for example after a custom validator's
+     * configuration changes.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationCache(" + key + ": " + size() + " values, "
+                + hits() + " hits, " + misses() + " misses)";
+    }
+
+    private static final class Entry {
+
+        private final String value;
+        private final Problem[] outcome;
+        private volatile boolean referenced;
+
+        Entry(String value, Problem[] outcome) {
+            this.value = value;
+            this.outcome = outcome;
+        }
+    }
+}
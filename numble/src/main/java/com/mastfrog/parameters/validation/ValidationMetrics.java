@@ -0,0 +1,210 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validation;
+
+import com.google.inject.ImplementedBy;
+import com.mastfrog.parameters.validation.ValidationMetrics.None;
+
+/**
+ * Receives timings and outcomes of validation, per &#064;Params type and per
+ * parameter. The default binding is disabled, and callers check
+ * <code>isEnabled()</code> before each check, so there is no cost unless an
+ * implementation such as RecordingValidationMetrics is bound and enabled.
+ * <p>
+ * Each timed piece of work is also announced before it starts, by
+ * <code>checking()</code>, <code>validating()</code> or
+ * <code>binding()</code>, for implementations which trace spans rather than
+ * only count durations; whatever those return is passed back when the work
+ * ends. Implementations which only count can ignore them.
+ * <p>
+ * Implementations are called concurrently from whatever threads validate,
+ * so must be thread-safe, and should be cheap.
+ *
+ * @author Tim Boudreau
+ */
+@ImplementedBy(None.class)
+public interface ValidationMetrics {
+
+    /**
+     * The disabled instance.
+     */
+    ValidationMetrics NONE = new None();
+
+    /**
+     * If false when a check starts, none of the other methods will be
+     * called for it. This is asked once per check, and may change over
+     * time (JfrValidationMetrics is only enabled while a recording wants
+     * its events), so must be cheap.
+     *
+     * @return true by default
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Called just before a set of parameters is checked.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @return An object to pass to <code>checked()</code> when the check
+     * ends, possibly on another thread, or null
+     */
+    default Object checking(Class<?> paramsType) {
+        return null;
+    }
+
+    /**
+     * Called when a set of parameters has been checked.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @param valid Whether there were no fatal problems
+     * @param nanos The time the whole check took
+     */
+    void checked(Class<?> paramsType, boolean valid, long nanos);
+
+    /**
+     * Called when a set of parameters has been checked, with what
+     * <code>checking()</code> returned when the check started; by default,
+     * calls <code>checked(paramsType, valid, nanos)</code>.
+     *
+     * @param span The result of <code>checking()</code>
+     * @param paramsType The type with the &#064;Params annotation
+     * @param valid Whether there were no fatal problems
+     * @param nanos The time the whole check took
+     */
+    default void checked(Object span, Class<?> paramsType, boolean valid, long nanos) {
+        checked(paramsType, valid, nanos);
+    }
+
+    /**
+     * Called just before the constraints and custom validators for one
+     * parameter value run.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @param param The parameter name
+     * @return An object to pass to <code>validated()</code> when they have
+     * run, or null
+     */
+    default Object validating(Class<?> paramsType, String param) {
+        return null;
+    }
+
+    /**
+     * Called when the constraints and custom validators for one parameter
+     * value have run; if they failed, that is a FailureKind.CONSTRAINT.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @param param The parameter name
+     * @param valid Whether they found no fatal problems
+     * @param nanos The time they took
+     */
+    void validated(Class<?> paramsType, String param, boolean valid, long nanos);
+
+    /**
+     * Called when the constraints and custom validators for one parameter
+     * value have run, with what <code>validating()</code> returned before
+     * they started; by default, calls
+     * <code>validated(paramsType, param, valid, nanos)</code>.
+     *
+     * @param span The result of <code>validating()</code>
+     * @param paramsType The type with the &#064;Params annotation
+     * @param param The parameter name
+     * @param valid Whether they found no fatal problems
+     * @param nanos The time they took
+     */
+    default void validated(Object span, Class<?> paramsType, String param, boolean valid, long nanos) {
+        validated(paramsType, param, valid, nanos);
+    }
+
+    /**
+     * Called for failures found without running validators - a missing
+     * parameter, one of the wrong type, or an unknown one.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @param param The parameter name, or null for FailureKind.UNKNOWN
+     * @param kind The kind of failure
+     */
+    void failed(Class<?> paramsType, String param, FailureKind kind);
+
+    /**
+     * Called just before a request body is deserialized straight into an
+     * instance of a generated parameters class.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @return An object to pass to <code>bound()</code> when the instance
+     * has been validated, or null
+     */
+    default Object binding(Class<?> paramsType) {
+        return null;
+    }
+
+    /**
+     * Called when a request body has been deserialized straight into an
+     * instance of a generated parameters class and that instance validated.
+     *
+     * @param paramsType The type with the &#064;Params annotation
+     * @param valid Whether it was valid
+     * @param nanos The time deserializing and validating took
+     */
+    default void bound(Class<?> paramsType, boolean valid, long nanos) {
+        // do nothing
+    }
+
+    /**
+     * Called when a request body has been deserialized and validated, with
+     * what <code>binding()</code> returned before it started; by default,
+     * calls <code>bound(paramsType, valid, nanos)</code>.
+     *
+     * @param span The result of <code>binding()</code>
+     * @param paramsType The type with the &#064;Params annotation
+     * @param valid Whether it was valid
+     * @param nanos The time deserializing and validating took
+     */
+    default void bound(Object span, Class<?> paramsType, boolean valid, long nanos) {
+        bound(paramsType, valid, nanos);
+    }
+
+    static final class None implements ValidationMetrics {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void checked(Class<?> paramsType, boolean valid, long nanos) {
+            // do nothing
+        }
+
+        @Override
+        public void validated(Class<?> paramsType, String param, boolean valid, long nanos) {
+            // do nothing
+        }
+
+        @Override
+        public void failed(Class<?> paramsType, String param, FailureKind kind) {
+            // do nothing
+        }
+    }
+}
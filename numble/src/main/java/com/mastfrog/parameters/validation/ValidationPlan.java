@@ -0,0 +1,653 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validation;
+
+import com.google.inject.Injector;
+import com.mastfrog.parameters.KeysValues;
+import com.mastfrog.parameters.Param;
+import com.mastfrog.parameters.Params;
+import com.mastfrog.parameters.TypeValidation;
+import com.mastfrog.parameters.Types;
+import com.mastfrog.parameters.gen.GeneratedChecker;
+import com.mastfrog.parameters.validators.AsyncValidator;
+import com.mastfrog.parameters.validators.SharedValidators;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.netbeans.validation.api.Problem;
+import org.netbeans.validation.api.Problems;
+import org.netbeans.validation.api.Validator;
+import org.netbeans.validation.api.builtin.stringvalidation.StringValidators;
+
+/**
+ * Immutable, precompiled form of the &#064;Params annotation on one type, with
+ * all validators already resolved, so checking a set of parameters is just a
+ * loop over arrays. Instances are shared between threads.
+ * <p>
+ * If the annotation processor generated an <code>XxxParamsChecker</code> for
+ * the type, the per-parameter checks are delegated to that instead.
+ * <p>
+ * Checks against a ValidationSink report failures by parameter index; the
+ * messages for them are only produced on demand, by <code>describe()</code>,
+ * except those of constraint failures, which are handed to the sink as the
+ * validators reported them.
+ * <p>
+ * Parameters with an AsyncValidator also keep their synchronous and
+ * asynchronous validators apart, for <code>checkAsync()</code>; those are
+ * resolved even when there is a generated checker.
+ * <p>
+ * If ValidationMetrics are enabled, the time the validators for each
+ * parameter take is recorded - here, or by the generated checker.
+ * <p>
+ * The names in the ParamsWhitelist are copied when the plan is built, once
+ * per type and ParamChecker; the whitelist is fixed when it is constructed,
+ * so the copy never goes stale.
+ *
+ * @author Tim Boudreau
+ */
+final class ValidationPlan {
+
+    static final ValidationPlan NONE = new ValidationPlan();
+    final String[] keys;
+    final boolean[] required;
+    private final Types[] types;
+    private final Map<String, Integer> indices;
+    private final Validator<String>[][] validators;
+    private final ValidationCache[] caches;
+    private final Validator<String>[][] syncValidators;
+    private final AsyncValidator<String>[][] asyncValidators;
+    private final boolean hasAsync;
+    final boolean allowUnlisted;
+    final boolean failFast;
+    private final Set<String> permittedKeys;
+    private final GeneratedChecker generated;
+    private final Class<?> type;
+    private final ValidationMetrics metrics;
+
+    @SuppressWarnings("unchecked")
+    private ValidationPlan() {
+        keys = new String[0];
+        required = new boolean[0];
+        types = new Types[0];
+        validators = new Validator[0][];
+        caches = new ValidationCache[0];
+        syncValidators = new Validator[0][];
+        asyncValidators = new AsyncValidator[0][];
+        hasAsync = false;
+        indices = new HashMap<>();
+        allowUnlisted = true;
+        failFast = false;
+        permittedKeys = new HashSet<>();
+        generated = null;
+        type = null;
+        metrics = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValidationPlan(Class<?> type, Params params, Injector injector, ParamsWhitelist whitelist,
+            GeneratedChecker generated, ValidationMetrics metrics) {
+        this.type = type;
+        this.generated = generated;
+        this.metrics = metrics;
+        Param[] declared = params.value();
+        keys = new String[declared.length];
+        required = new boolean[declared.length];
+        types = new Types[declared.length];
+        validators = new Validator[declared.length][];
+        caches = new ValidationCache[declared.length];
+        syncValidators = new Validator[declared.length][];
+        asyncValidators = new AsyncValidator[declared.length][];
+        indices = new HashMap<>(declared.length * 2);
+        permittedKeys = new HashSet<>(whitelist.names());
+        allowUnlisted = params.allowUnlistedParameters();
+        failFast = params.failFast();
+        boolean anyAsync = false;
+        for (int i = 0; i < declared.length; i++) {
+            Param p = declared[i];
+            keys[i] = p.value();
+            required[i] = p.required() && "".equals(p.defaultValue());
+            types[i] = p.type();
+            permittedKeys.add(p.value());
+            indices.put(p.value(), i);
+            boolean async = false;
+            for (Class<? extends Validator<String>> validatorType : p.validators()) {
+                async |= AsyncValidator.class.isAssignableFrom(validatorType);
+            }
+            anyAsync |= async;
+            if (generated != null && !async) {
+                continue;
+            }
+            List<Validator<String>> all = new ArrayList<>();
+            List<Validator<String>> sync = new ArrayList<>();
+            List<AsyncValidator<String>> asyncs = new ArrayList<>();
+            for (StringValidators v : p.constraints()) {
+                all.add(v);
+                sync.add(v);
+            }
+            for (Class<? extends Validator<String>> validatorType : p.validators()) {
+                Validator<String> v = SharedValidators.isShared(validatorType)
+                        ? injector.getInstance(SharedValidators.class).get(validatorType)
+                        : injector.getInstance(validatorType);
+                all.add(v);
+                if (v instanceof AsyncValidator<?>) {
+                    asyncs.add((AsyncValidator<String>) v);
+                } else {
+                    sync.add(v);
+                }
+            }
+            if (async) {
+                syncValidators[i] = sync.toArray(new Validator[sync.size()]);
+                asyncValidators[i] = asyncs.toArray(new AsyncValidator[asyncs.size()]);
+            }
+            Validator<String>[] checks = all.toArray(new Validator[all.size()]);
+            if (p.cacheValidation() && checks.length > 0) {
+                String key = p.value();
+                caches[i] = new ValidationCache(key, p.validationCacheSize(), (value, problems) -> {
+                    for (Validator<String> v : checks) {
+                        v.validate(problems, key, value);
+                    }
+                });
+                validators[i] = new Validator[]{caches[i]};
+            } else {
+                validators[i] = checks;
+            }
+        }
+        hasAsync = anyAsync;
+    }
+
+    static ValidationPlan create(Class<?> declaringType, Injector injector, ParamsWhitelist whitelist,
+            ValidationMetrics metrics) {
+        Params params = declaringType.getAnnotation(Params.class);
+        if (params == null) {
+            return NONE;
+        }
+        return new ValidationPlan(declaringType, params, injector, whitelist,
+                generatedChecker(declaringType, injector), metrics);
+    }
+
+    private static GeneratedChecker generatedChecker(Class<?> declaringType, Injector injector) {
+        String name = declaringType.getName();
+        int ix = name.lastIndexOf('.');
+        String checkerName = (ix < 0 ? "" : name.substring(0, ix + 1))
+                + declaringType.getSimpleName() + "ParamsChecker";
+        try {
+            Class<?> checkerType = Class.forName(checkerName, true, declaringType.getClassLoader());
+            if (GeneratedChecker.class.isAssignableFrom(checkerType)) {
+                return (GeneratedChecker) injector.getInstance(checkerType);
+            }
+        } catch (ClassNotFoundException ex) {
+            // Compiled without the annotation processor - use the validators
+            // from the annotation
+        }
+        return null;
+    }
+
+    void check(KeysValues params, Problems problems, boolean failFast) {
+        if (failFast) {
+            FirstFailure first = new FirstFailure();
+            if (!check(params, first)) {
+                if (first.found != null) {
+                    problems.append(first.found.getLeadProblem());
+                } else {
+                    problems.append(describe(first.index, first.kind, first.value));
+                }
+            }
+            return;
+        }
+        if (generated != null) {
+            generated.check(params, problems);
+        } else {
+            checkDeclared(params, problems);
+        }
+        if (!allowUnlisted) {
+            checkUnlisted(params, problems);
+        }
+    }
+
+    /**
+     * Check parameters, reporting failures to a sink rather than as messages.
+     *
+     * @return false if the sink asked to stop
+     */
+    boolean check(KeysValues params, ValidationSink sink) {
+        sink = measuring(sink);
+        if (generated != null) {
+            if (!generated.check(params, sink)) {
+                return false;
+            }
+        } else if (!checkDeclared(params, sink)) {
+            return false;
+        }
+        return checkUnlisted(params, sink);
+    }
+
+    /**
+     * Check parameters already known to be present and of the right type,
+     * running only constraints, custom validators and the check for unknown
+     * parameters.
+     *
+     * @return false if the sink asked to stop
+     */
+    boolean checkConstraints(KeysValues params, ValidationSink sink) {
+        sink = measuring(sink);
+        if (generated != null) {
+            if (!generated.checkConstraints(params, sink)) {
+                return false;
+            }
+        } else {
+            Object[] values = new Object[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                values[i] = params.getObject(keys[i]);
+            }
+            if (!checkValues(values, sink)) {
+                return false;
+            }
+        }
+        return checkUnlisted(params, sink);
+    }
+
+    private boolean checkUnlisted(KeysValues params, ValidationSink sink) {
+        if (!allowUnlisted) {
+            for (String key : params.keySet()) {
+                if (!permittedKeys.contains(key) && !sink.failed(-1, FailureKind.UNKNOWN, key)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check parameters, running any AsyncValidators on the executor. Presence,
+     * type and synchronous checks run on the calling thread first; the
+     * asynchronous validators are only started for values which passed them
+     * (and, in fail-fast mode, only if nothing else failed), and run
+     * concurrently with each other.
+     *
+     * @return A future which completes with all problems found, in the order
+     * the parameters are declared in
+     */
+    CompletableFuture<Problems> checkAsync(KeysValues params, Executor executor) {
+        Problems problems = new Problems();
+        if (!hasAsync) {
+            check(params, problems, failFast);
+            return CompletableFuture.completedFuture(problems);
+        }
+        List<Runnable> launches = new ArrayList<>(3);
+        List<CompletableFuture<Problems>> pending = new ArrayList<>(3);
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            Object value = params.getObject(key);
+            if (value == null) {
+                if (required[i]) {
+                    missing(i, problems);
+                }
+            } else if (asyncValidators[i] == null) {
+                if (generated != null) {
+                    generated.checkValue(key, value.toString(), problems);
+                } else {
+                    if (checkType(i, value, problems)) {
+                        runValidators(i, validators[i], value.toString(), problems);
+                    }
+                }
+            } else if (checkType(i, value, problems)) {
+                boolean clean = !problems.hasFatal();
+                Problems local = clean ? problems : new Problems();
+                String string = value.toString();
+                runValidators(i, syncValidators[i], string, local);
+                if (!clean) {
+                    problems.addAll(local);
+                }
+                if (!local.hasFatal()) {
+                    for (AsyncValidator<String> v : asyncValidators[i]) {
+                        launches.add(() -> pending.add(launch(v, key, string, executor)));
+                    }
+                }
+            }
+            if (failFast && problems.hasFatal()) {
+                break;
+            }
+        }
+        if (!allowUnlisted && !(failFast && problems.hasFatal())) {
+            checkUnlisted(params, problems);
+        }
+        if (launches.isEmpty() || (failFast && problems.hasFatal())) {
+            return CompletableFuture.completedFuture(failFast ? firstOnly(problems) : problems);
+        }
+        for (Runnable launch : launches) {
+            launch.run();
+        }
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[pending.size()]))
+                .thenApply(ignored -> {
+                    for (CompletableFuture<Problems> f : pending) {
+                        problems.addAll(f.join());
+                        if (failFast && problems.hasFatal()) {
+                            return firstOnly(problems);
+                        }
+                    }
+                    return problems;
+                });
+    }
+
+    private static CompletableFuture<Problems> launch(AsyncValidator<String> validator, String key,
+            String value, Executor executor) {
+        try {
+            return validator.validateAsync(key, value, executor);
+        } catch (RejectedExecutionException ex) {
+            // Never fall back to blocking the caller, which may be an event loop
+            CompletableFuture<Problems> result = new CompletableFuture<>();
+            result.completeExceptionally(ex);
+            return result;
+        }
+    }
+
+    private static Problems firstOnly(Problems problems) {
+        Problem lead = problems.getLeadProblem();
+        return lead == null ? problems : new Problems().append(lead);
+    }
+
+    /**
+     * Create an empty result which stops the check at the first failure if
+     * the &#064;Params asks for that.
+     */
+    ValidationResult newResult() {
+        return new ValidationResult(this, failFast);
+    }
+
+    /**
+     * Format the message for a failure reported to a ValidationSink.
+     */
+    String describe(int index, FailureKind kind, Object value) {
+        Problem lead = describe(index, kind, value, new Problems()).getLeadProblem();
+        return lead == null ? keys[index] + " is invalid: '" + value + "'" : lead.getMessage();
+    }
+
+    /**
+     * Add the messages check() would have produced for a failure reported
+     * to a ValidationSink. A constraint failure is only described by running
+     * its validators again if the problems they found were not kept.
+     */
+    Problems describe(int index, FailureKind kind, Object value, Problems problems) {
+        switch (kind) {
+            case MISSING:
+                return problems.append("Missing " + keys[index]);
+            case UNKNOWN:
+                return problems.append("Parameters contains unknown keys: [" + value + "]");
+            case INVALID_TYPE:
+                TypeValidation.check(types[index], problems, keys[index], value);
+                return problems;
+            default:
+                checkValue(keys[index], value.toString(), problems);
+                return problems;
+        }
+    }
+
+    /**
+     * Check one value.
+     *
+     * @return The index of the parameter in <code>keys</code>, or -1 if it
+     * is not declared
+     */
+    int checkValue(String key, String value, Problems problems) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return index;
+        }
+        if (generated != null) {
+            generated.checkValue(key, value, problems);
+        } else {
+            if (checkType(index, value, problems)) {
+                runValidators(index, validators[index], value, problems);
+            }
+        }
+        return index;
+    }
+
+    ValidationCache validationCache(String key) {
+        if (generated != null) {
+            return generated.validationCache(key);
+        }
+        int index = indexOf(key);
+        return index < 0 ? null : caches[index];
+    }
+
+    int indexOf(String key) {
+        Integer index = indices.get(key);
+        return index == null ? -1 : index;
+    }
+
+    boolean isPermitted(String key) {
+        return permittedKeys.contains(key);
+    }
+
+    private void checkDeclared(KeysValues params, Problems problems) {
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            Object value = params.getObject(key);
+            if (value == null) {
+                if (required[i]) {
+                    missing(i, problems);
+                }
+                continue;
+            }
+            if (checkType(i, value, problems)) {
+                runValidators(i, validators[i], value.toString(), problems);
+            }
+        }
+    }
+
+    private void missing(int index, Problems problems) {
+        problems.append("Missing " + keys[index]);
+        failed(keys[index], FailureKind.MISSING);
+    }
+
+    /**
+     * Add the message for a value of the wrong type, passing the failure to
+     * the metrics in the same pass.
+     *
+     * @return true if the value is of the right type
+     */
+    private boolean checkType(int index, Object value, Problems problems) {
+        if (TypeValidation.isValid(types[index], value)) {
+            return true;
+        }
+        TypeValidation.validator(types[index]).validate(problems, keys[index], value.toString());
+        failed(keys[index], FailureKind.INVALID_TYPE);
+        return false;
+    }
+
+    private boolean checkDeclared(KeysValues params, ValidationSink sink) {
+        // Presence and type checks for everything first, since they are
+        // cheap, then constraints and custom validators on the values which
+        // passed them
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Object value = params.getObject(keys[i]);
+            if (value == null) {
+                if (required[i] && !sink.failed(i, FailureKind.MISSING, null)) {
+                    return false;
+                }
+            } else if (!TypeValidation.isValid(types[i], value)) {
+                if (!sink.failed(i, FailureKind.INVALID_TYPE, value)) {
+                    return false;
+                }
+            } else {
+                values[i] = value;
+            }
+        }
+        return checkValues(values, sink);
+    }
+
+    /**
+     * Run constraints and custom validators on the non-null values.
+     */
+    private boolean checkValues(Object[] values, ValidationSink sink) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] == null || validators[i].length == 0) {
+                continue;
+            }
+            Problems problems = new Problems();
+            runValidators(i, validators[i], values[i].toString(), problems);
+            if (problems.hasFatal() && !sink.failed(i, values[i], problems)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void runValidators(int index, Validator<String>[] vals, String value, Problems problems) {
+        if (vals.length == 0) {
+            return;
+        }
+        if (!measured()) {
+            for (int j = 0; j < vals.length; j++) {
+                vals[j].validate(problems, keys[index], value);
+            }
+            return;
+        }
+        Object span = metrics.validating(type, keys[index]);
+        long start = System.nanoTime();
+        // Only collect separately if an earlier failure would hide whether
+        // these validators failed
+        boolean clean = !problems.hasFatal();
+        Problems found = clean ? problems : new Problems();
+        for (int j = 0; j < vals.length; j++) {
+            vals[j].validate(found, keys[index], value);
+        }
+        metrics.validated(span, type, keys[index], !found.hasFatal(), System.nanoTime() - start);
+        if (!clean) {
+            problems.addAll(found);
+        }
+    }
+
+    /**
+     * Wrap a sink so failures found without running validators are passed to
+     * the metrics; constraint failures are already recorded with their
+     * timings.
+     */
+    private ValidationSink measuring(ValidationSink sink) {
+        if (!measured()) {
+            return sink;
+        }
+        return new ValidationSink() {
+            @Override
+            public boolean failed(int index, FailureKind kind, Object value) {
+                if (kind != FailureKind.CONSTRAINT) {
+                    metrics.failed(type, index < 0 ? null : keys[index], kind);
+                }
+                return sink.failed(index, kind, value);
+            }
+
+            @Override
+            public boolean failed(int index, Object value, Problems problems) {
+                return sink.failed(index, value, problems);
+            }
+        };
+    }
+
+    /**
+     * Whether metrics are being recorded. Asked per check rather than once,
+     * since it can change - JfrValidationMetrics is only enabled while a
+     * recording has its events enabled.
+     */
+    boolean measured() {
+        return metrics != null && metrics.isEnabled();
+    }
+
+    /**
+     * Tell the metrics a whole check is starting; call only if measured()
+     * was true.
+     *
+     * @return What to pass to checked() when it ends
+     */
+    Object checking() {
+        return metrics.checking(type);
+    }
+
+    /**
+     * Record the outcome and duration of a whole check, if metrics are
+     * enabled.
+     */
+    void checked(Object span, boolean valid, long start) {
+        if (measured()) {
+            metrics.checked(span, type, valid, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a failure found without running validators, if metrics are
+     * enabled.
+     */
+    void failed(String key, FailureKind kind) {
+        if (measured()) {
+            metrics.failed(type, key, kind);
+        }
+    }
+
+    private static final class FirstFailure implements ValidationSink {
+
+        int index;
+        FailureKind kind;
+        Object value;
+        Problems found;
+
+        @Override
+        public boolean failed(int index, FailureKind kind, Object value) {
+            this.index = index;
+            this.kind = kind;
+            this.value = value;
+            return false;
+        }
+
+        @Override
+        public boolean failed(int index, Object value, Problems problems) {
+            found = problems;
+            return failed(index, FailureKind.CONSTRAINT, value);
+        }
+    }
+
+    private void checkUnlisted(KeysValues params, Problems problems) {
+        List<String> unknown = null;
+        for (String key : params.keySet()) {
+            if (!permittedKeys.contains(key)) {
+                if (unknown == null) {
+                    unknown = new ArrayList<>(3);
+                }
+                unknown.add(key);
+            }
+        }
+        if (unknown != null) {
+            problems.append("Parameters contains unknown keys: " + unknown);
+            for (int i = 0; i < unknown.size(); i++) {
+                failed(null, FailureKind.UNKNOWN);
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Compact record of the failures found by ParamChecker.validate(): for each
+ * one, the parameter index, the kind of failure and the offending value.
+ * Messages are only formatted when <code>message()</code> or
+ * <code>appendTo()</code> is called, so a valid request, or one which is
+ * rejected without explanation, never builds a string; for a constraint
+ * failure, the problems its validators reported are kept and used, so they
+ * are never run again. Not thread-safe.
+ *
+ * @author Tim Boudreau
+ */
+public final class ValidationResult implements ValidationSink {
+
+    private final ValidationPlan plan;
+    private final boolean failFast;
+    private int size;
+    private int[] indices = new int[2];
+    private FailureKind[] kinds = new FailureKind[2];
+    private Object[] values = new Object[2];
+    private Problems[] found;
+
+    ValidationResult(ValidationPlan plan, boolean failFast) {
+        this.plan = plan;
+        this.failFast = failFast;
+    }
+
+    @Override
+    public boolean failed(int index, FailureKind kind, Object value) {
+        if (size == indices.length) {
+            indices = Arrays.copyOf(indices, size * 2);
+            kinds = Arrays.copyOf(kinds, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        indices[size] = index;
+        kinds[size] = kind;
+        values[size++] = value;
+        return !failFast;
+    }
+
+    /**
+     * Keeps the problems the validators reported, which are what
+     * <code>message()</code> and <code>appendTo()</code> format.
+     */
+    @Override
+    public boolean failed(int index, Object value, Problems problems) {
+        boolean result = failed(index, FailureKind.CONSTRAINT, value);
+        if (found == null) {
+            found = new Problems[indices.length];
+        } else if (found.length < indices.length) {
+            found = Arrays.copyOf(found, indices.length);
+        }
+        found[size - 1] = problems;
+        return result;
+    }
+
+    private Problems found(int failure) {
+        return found == null || failure >= found.length ? null : found[failure];
+    }
+
+    /**
+     * Determine if no failures were recorded.
+     *
+     * @return true if the parameters are valid
+     */
+    public boolean isValid() {
+        return size == 0;
+    }
+
+    /**
+     * Get the number of failures.
+     *
+     * @return The count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the index, in the &#064;Params annotation, of the parameter a
+     * failure is for.
+     *
+     * @param failure The failure, from 0 to size() - 1
+     * @return The index, or -1 for an unknown parameter
+     */
+    public int index(int failure) {
+        checkBounds(failure);
+        return indices[failure];
+    }
+
+    /**
+     * Get the kind of a failure.
+     *
+     * @param failure The failure, from 0 to size() - 1
+     * @return The kind
+     */
+    public FailureKind kind(int failure) {
+        checkBounds(failure);
+        return kinds[failure];
+    }
+
+    /**
+     * Get the name of the parameter a failure is for.
+     *
+     * @param failure The failure, from 0 to size() - 1
+     * @return The parameter name
+     */
+    public String key(int failure) {
+        checkBounds(failure);
+        return indices[failure] < 0 ? (String) values[failure] : plan.keys[indices[failure]];
+    }
+
+    /**
+     * Get the offending value of a failure.
+     *
+     * @param failure The failure, from 0 to size() - 1
+     * @return The value, or null for a missing parameter
+     */
+    public Object value(int failure) {
+        checkBounds(failure);
+        return kinds[failure] == FailureKind.MISSING ? null : values[failure];
+    }
+
+    /**
+     * Format the message for a failure - the first of those
+     * ParamChecker.check() would have reported for it.
+     *
+     * @param failure The failure, from 0 to size() - 1
+     * @return A message
+     */
+    public String message(int failure) {
+        checkBounds(failure);
+        Problems problems = found(failure);
+        if (problems != null) {
+            return problems.getLeadProblem().getMessage();
+        }
+        return plan.describe(indices[failure], kinds[failure], values[failure]);
+    }
+
+    /**
+     * Format messages for all failures, in the same form as
+     * ParamChecker.check().
+     *
+     * @param problems The problems to add to
+     * @return The problems
+     */
+    public Problems appendTo(Problems problems) {
+        List<Object> unknown = null;
+        for (int i = 0; i < size; i++) {
+            if (kinds[i] == FailureKind.UNKNOWN) {
+                if (unknown == null) {
+                    unknown = new ArrayList<>(3);
+                }
+                unknown.add(values[i]);
+            } else if (found(i) != null) {
+                problems.addAll(found(i));
+            } else {
+                plan.describe(indices[i], kinds[i], values[i], problems);
+            }
+        }
+        if (unknown != null) {
+            problems.append("Parameters contains unknown keys: " + unknown);
+        }
+        return problems;
+    }
+
+    private void checkBounds(int failure) {
+        if (failure < 0 || failure >= size) {
+            throw new IndexOutOfBoundsException(failure + " of " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (isValid()) {
+            return "valid";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append("; ");
+            }
+            sb.append(message(i));
+        }
+        return sb.toString();
+    }
+}
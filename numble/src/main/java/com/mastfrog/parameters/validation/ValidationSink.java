@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validation;
+
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Receives validation failures as they are found, without any message being
+ * formatted. A sink which only cares whether the parameters are valid can
+ * return false from the first call, which ends the check.
+ *
+ * @see ValidationResult
+ * @author Tim Boudreau
+ */
+public interface ValidationSink {
+
+    /**
+     * Called for each failure.
+     *
+     * @param index The index of the parameter in the &#064;Params annotation,
+     * or -1 for an unknown parameter
+     * @param kind The kind of failure
+     * @param value The offending value - null for a missing parameter, the
+     * parameter name for an unknown one
+     * @return true to continue checking, false to stop
+     */
+    boolean failed(int index, FailureKind kind, Object value);
+
+    /**
+     * Called for a value which failed its constraints or custom validators,
+     * with the problems they reported, so that a sink which wants messages
+     * can keep them rather than running the validators again. By default,
+     * passes the failure to <code>failed()</code> as a
+     * FailureKind.CONSTRAINT.
+     *
+     * @param index The index of the parameter in the &#064;Params annotation
+     * @param value The offending value
+     * @param problems The problems the validators reported
+     * @return true to continue checking, false to stop
+     */
+    default boolean failed(int index, Object value, Problems problems) {
+        return failed(index, FailureKind.CONSTRAINT, value);
+    }
+}
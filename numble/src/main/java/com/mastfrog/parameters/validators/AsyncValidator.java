@@ -0,0 +1,59 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validators;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.netbeans.validation.api.Problems;
+import org.netbeans.validation.api.Validator;
+
+/**
+ * A validator which may block or take a long time - say, to look up an id in
+ * a store. ParamChecker.checkAsync() runs these concurrently, off the calling
+ * thread, after the cheap checks have passed; ordinary check() calls still
+ * run them synchronously.
+ *
+ * @param <T> The model type
+ * @author Tim Boudreau
+ */
+public interface AsyncValidator<T> extends Validator<T> {
+
+    /**
+     * Validate a value without blocking the calling thread. The default
+     * implementation runs <code>validate()</code> on the executor; override
+     * it if the underlying I/O is itself asynchronous.
+     *
+     * @param key The parameter name
+     * @param value The value
+     * @param executor An executor suitable for blocking work
+     * @return A future which completes with the problems found, if any
+     */
+    default CompletableFuture<Problems> validateAsync(String key, T value, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            Problems problems = new Problems();
+            validate(problems, key, value);
+            return problems;
+        }, executor);
+    }
+}
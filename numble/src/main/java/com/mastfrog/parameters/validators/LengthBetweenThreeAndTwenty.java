@@ -29,6 +29,7 @@ package com.mastfrog.parameters.validators;
  *
  * @author Tim Boudreau
  */
+@Stateless
 public class LengthBetweenThreeAndTwenty extends StringLengthValidator {
 
     public LengthBetweenThreeAndTwenty() {
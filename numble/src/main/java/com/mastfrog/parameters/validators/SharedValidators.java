@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters.validators;
+
+import java.lang.reflect.InvocationTargetException;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.netbeans.validation.api.Validator;
+
+/**
+ * Holds the single shared instance, per injector, of each validator class
+ * marked &#064;Stateless; inject it or get it from the injector.
+ *
+ * @author Tim Boudreau
+ */
+@Singleton
+public final class SharedValidators {
+
+    private final ClassValue<Validator<?>> instances = new ClassValue<Validator<?>>() {
+        @Override
+        protected Validator<?> computeValue(Class<?> type) {
+            try {
+                return (Validator<?>) type.getConstructor().newInstance();
+            } catch (NoSuchMethodException | InstantiationException | IllegalAccessException ex) {
+                throw new IllegalArgumentException(type.getName()
+                        + " does not have a public no-argument constructor", ex);
+            } catch (InvocationTargetException ex) {
+                throw new IllegalStateException("Could not create " + type.getName(), ex.getCause());
+            }
+        }
+    };
+
+    @Inject
+    SharedValidators() {
+        // do nothing
+    }
+
+    /**
+     * Get the shared instance of a validator.
+     *
+     * @param <T> The validator type
+     * @param type The validator type, which should be marked &#064;Stateless
+     * @return The shared instance
+     */
+    public <T extends Validator<?>> T get(Class<T> type) {
+        return type.cast(instances.get(type));
+    }
+
+    /**
+     * Determine if a validator type can be shared.
+     *
+     * @param type A validator type
+     * @return true if it is marked &#064;Stateless
+     */
+    public static boolean isShared(Class<?> type) {
+        return type.isAnnotationPresent(Stateless.class);
+    }
+}
@@ -47,7 +47,7 @@ public class StringLengthValidator extends StringValidator {
         if (min != -1 && model.length() < min) {
             problems.append(compName + " must be at least " + min + " characters long");
         }
-        if (max != -1 && model.length() > 20) {
+        if (max != -1 && model.length() > max) {
             problems.append(compName + " must be no more than " + max + " characters long");
         }
     }
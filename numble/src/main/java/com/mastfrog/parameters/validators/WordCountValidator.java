@@ -45,7 +45,7 @@ public class WordCountValidator extends StringValidator {
     @Override
     protected void doValidate(Problems problems, String compName, String model) {
         if (model != null) {
-            int wordCount = model.split("\\s+").length;
+            int wordCount = wordCount(model);
             if (wordCount < min && min != -1) {
                 problems.append(compName + " must be at least " + min + " words");
             }
@@ -54,4 +54,38 @@ public class WordCountValidator extends StringValidator {
             }
         }
     }
+
+    /**
+     * Counts as String.split("\\s+").length would, without allocating.
+     */
+    static int wordCount(CharSequence model) {
+        int len = model.length();
+        int count = 0;
+        boolean inWord = false;
+        boolean leadingSpace = false;
+        for (int i = 0; i < len; i++) {
+            boolean space = isRegexWhitespace(model.charAt(i));
+            if (space) {
+                if (i == 0) {
+                    leadingSpace = true;
+                }
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                count++;
+            }
+        }
+        // split() keeps the empty string before leading whitespace, drops
+        // trailing empty strings, and returns the input itself when empty
+        if (len == 0) {
+            return 1;
+        } else if (count == 0) {
+            return 0;
+        }
+        return leadingSpace ? count + 1 : count;
+    }
+
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
 }
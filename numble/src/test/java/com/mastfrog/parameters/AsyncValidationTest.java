@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import com.mastfrog.util.collections.MapBuilder;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static com.mastfrog.parameters.KnownUserValidator.PAIRED;
+import static com.mastfrog.parameters.TestFixtures.fakePage;
+import static com.mastfrog.parameters.TestFixtures.messages;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for ParamChecker.checkAsync().
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class AsyncValidationTest {
+
+    @Test
+    public void testCheckAsync(ParamChecker checker) throws Exception {
+        // Each lookup waits until the other is running, so this only passes
+        // if they run concurrently, and neither on this thread
+        CompletableFuture<Problems> future = checker.checkAsync(AsyncPage.class, KeysValues.ofMap(
+                new MapBuilder().put("owner", PAIRED + "joe").put("reviewer", PAIRED + "nobody").build()));
+        Problems problems = future.get(30, TimeUnit.SECONDS);
+        assertEquals(problems + "", 1, problems.allProblems().size());
+        assertEquals("No such user for reviewer: " + PAIRED + "nobody", problems.getLeadProblem().getMessage());
+
+        // Values which fail the synchronous checks are never looked up
+        future = checker.checkAsync(AsyncPage.class, KeysValues.ofMap(
+                new MapBuilder().put("owner", "n").put("count", "-3").put("bogus", "x").build()));
+        assertTrue(future.isDone());
+        problems = future.get();
+        Set<String> msgs = messages(problems);
+        assertEquals(msgs.toString(), 3, msgs.size());
+        assertTrue(msgs.toString(), msgs.contains("owner must be longer than two characters"));
+        assertTrue(msgs.toString(), msgs.contains("Parameters contains unknown keys: [bogus]"));
+
+        Problems sync = new Problems();
+        checker.check(AsyncPage.class, KeysValues.ofMap(new MapBuilder().put("owner", "nobody2").build()), sync);
+        problems = checker.checkAsync(AsyncPage.class, KeysValues.ofMap(new MapBuilder()
+                .put("owner", "nobody2").build()), Runnable::run).get();
+        assertEquals(messages(sync), messages(problems));
+        assertEquals(1, problems.allProblems().size());
+
+        // Types without async validators complete immediately
+        future = checker.checkAsync(FakePage.class, fakePage("q"));
+        assertTrue(future.isDone());
+        assertTrue(future.get().hasFatal());
+
+        // A saturated executor fails the check instead of blocking this thread
+        future = checker.checkAsync(AsyncPage.class, KeysValues.ofMap(new MapBuilder()
+                .put("owner", "joe").build()), command -> {
+                    throw new RejectedExecutionException("Full");
+                });
+        assertTrue(future.isCompletedExceptionally());
+        try {
+            future.get();
+            fail("Should have failed");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() + "", ex.getCause() instanceof RejectedExecutionException);
+        }
+    }
+}
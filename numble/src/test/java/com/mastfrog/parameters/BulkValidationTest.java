@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.parameters.validation.BulkValidationResult;
+import com.mastfrog.parameters.validation.ValidationResult;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import com.mastfrog.util.collections.MapBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests for ParamChecker.checkAll().
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class BulkValidationTest {
+
+    @Test
+    public void testCheckAll(ParamChecker checker) {
+        List<KeysValues> records = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            MapBuilder mb = new MapBuilder().put("requiredInt", i % 7 == 0 ? "x" : Integer.toString(i));
+            if (i % 11 != 0) {
+                mb.put("requiredNonNeg", i);
+            }
+            records.add(KeysValues.ofMap(mb.build()));
+        }
+        Iterable<KeysValues> unsized = records::iterator;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (BulkValidationResult result : new BulkValidationResult[]{
+                checker.checkAll(FakePage.class, records),
+                checker.checkAll(FakePage.class, unsized),
+                checker.checkAll(FakePage.class, records.spliterator(), pool),
+                // Prefixes of unknown size are forked too, and numbered
+                // when joined
+                checker.checkAll(FakePage.class, records.stream().filter(r -> r != null).spliterator(), pool)}) {
+                assertEquals(records.size(), result.size());
+                assertFalse(result.isValid());
+                int invalid = 0;
+                for (int i = 0; i < records.size(); i++) {
+                    ValidationResult expected = checker.validate(FakePage.class, records.get(i));
+                    assertEquals("Record " + i, expected.isValid(), result.isValid(i));
+                    if (!expected.isValid()) {
+                        assertEquals(result.invalidRecord(invalid), i);
+                        assertEquals(expected.toString(), result.invalidResult(invalid++).toString());
+                    } else {
+                        assertNull(result.result(i));
+                    }
+                }
+                assertEquals(invalid, result.invalidCount());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(checker.checkAll(FakePage.class, Collections.<KeysValues>emptyList()).isValid());
+    }
+}
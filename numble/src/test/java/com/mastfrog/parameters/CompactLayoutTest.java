@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mastfrog.parameters.ParamCheckerTest.Adap;
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for Params classes generated with compactLayout.
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class CompactLayoutTest {
+
+    @Test
+    public void testCompactLayout(ParamChecker checker, Dependencies deps) throws Exception {
+        for (java.lang.reflect.Field f : CompactPageParams.class.getDeclaredFields()) {
+            assertFalse(f.toString(), Optional.class.isAssignableFrom(f.getType()));
+            assertNotEquals(f.toString(), boolean.class, f.getType());
+        }
+        java.lang.reflect.Field metadata = CompactPageParams.class.getDeclaredField("__metadata");
+        metadata.setAccessible(true);
+
+        Map<String, String> map = new HashMap<>();
+        map.put("name", "thing");
+        map.put("active", "true");
+        map.put("count", "3");
+        map.put("ratio", "0.25");
+        map.put("verbose", "false");
+        CompactPageParams params = new CompactPageParams(new Adap(map));
+        assertEquals("thing", params.getName());
+        assertTrue(params.getActive());
+        assertEquals(10, params.getLimit());
+        assertEquals(3, params.getCount().getAsInt());
+        assertFalse(params.getSince().isPresent());
+        assertEquals(0.25D, params.getRatio().getAsDouble(), 0D);
+        assertEquals(Optional.of(false), params.getVerbose());
+        assertFalse(params.getNote().isPresent());
+        assertNull(metadata.get(params));
+        assertFalse(params.get("extra").isPresent());
+        assertTrue(params.validate(deps.getInjector(), new Problems()).allProblems().isEmpty());
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("name", "thing");
+        expected.put("active", true);
+        expected.put("limit", 10);
+        expected.put("count", 3);
+        expected.put("ratio", 0.25D);
+        expected.put("verbose", false);
+        assertEquals(expected, params.toMap());
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(mapper.readValue(mapper.writeValueAsString(expected), Map.class),
+                mapper.readValue(params.toJSON(), Map.class));
+
+        Problems problems = new Problems();
+        CompactPageParams created = CompactPageParams.tryCreate(new Adap(map), problems);
+        assertFalse(problems.toString(), problems.hasFatal());
+        assertEquals(params, created);
+        assertEquals(params.hashCode(), created.hashCode());
+        assertEquals(params.toString(), created.toString());
+        assertEquals(params, mapper.readValue(params.toJSON(), CompactPageParams.class));
+
+        // Absent and zero or false are different values
+        map.put("count", "0");
+        map.put("verbose", "true");
+        map.put("note", "hello");
+        map.put("extra", "stuff");
+        CompactPageParams other = new CompactPageParams(new Adap(map));
+        assertNotEquals(params, other);
+        assertEquals(0, other.getCount().getAsInt());
+        assertEquals(Optional.of(true), other.getVerbose());
+        assertEquals("hello", other.getNote().get());
+        assertEquals("stuff", other.get("extra").get());
+        assertNotNull(metadata.get(other));
+        assertEquals("stuff", other.toMap().get("extra"));
+        CompactPageParams parsed = mapper.readValue(other.toJSON(), CompactPageParams.class);
+        assertEquals(other, parsed);
+        assertEquals("stuff", parsed.get("extra").get());
+        CompactPageParams createdOther = CompactPageParams.tryCreate(new Adap(map), problems);
+        assertFalse(problems.toString(), problems.hasFatal());
+        assertEquals(other, createdOther);
+        assertEquals("stuff", createdOther.get("extra").get());
+        assertTrue(java.lang.reflect.Modifier.isVolatile(metadata.getModifiers()));
+
+        map.put("count", "-1");
+        problems = new CompactPageParams(new Adap(map)).validate(deps.getInjector(), new Problems());
+        assertEquals(problems + "", 1, problems.allProblems().size());
+    }
+}
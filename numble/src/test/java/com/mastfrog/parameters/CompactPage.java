@@ -0,0 +1,42 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+/**
+ *
+ * @author Tim Boudreau
+ */
+@Params(value = {
+    @Param(value = "name", type = Types.NON_EMPTY_STRING),
+    @Param(value = "active", type = Types.BOOLEAN),
+    @Param(value = "limit", type = Types.NON_NEGATIVE_INTEGER, defaultValue = "10"),
+    @Param(value = "count", type = Types.NON_NEGATIVE_INTEGER, required = false),
+    @Param(value = "since", type = Types.LONG, required = false),
+    @Param(value = "ratio", type = Types.DOUBLE, required = false),
+    @Param(value = "verbose", type = Types.BOOLEAN, required = false),
+    @Param(value = "note", type = Types.STRING, required = false)
+}, allowUnlistedParameters = true, generateToJSON = true, compactLayout = true)
+public class CompactPage {
+
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import com.mastfrog.util.collections.MapBuilder;
+import java.io.IOException;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for fail-fast validation.
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class FailFastTest {
+
+    @Test
+    public void testFailFast(ParamChecker checker, Dependencies deps) throws IOException {
+        Map<String, Object> bad = new MapBuilder().put("requiredInt", "x").put("jthing", "x")
+                .put("nothing", "5 things").build();
+        KeysValues kv = KeysValues.ofMap(bad);
+        Problems problems = new Problems();
+        checker.check(FakePage.class, kv, problems);
+        assertTrue(problems + "", problems.allProblems().size() > 2);
+        problems = new Problems();
+        checker.check(FakePage.class, kv, problems, true);
+        assertEquals(problems + "", 1, problems.allProblems().size());
+        // Type checks run before constraints
+        assertEquals("requiredInt is not an integer: 'x'", problems.getLeadProblem().getMessage());
+
+        bad.put("requiredInt", "1");
+        bad.put("requiredNonNeg", "1");
+        problems = new Problems();
+        checker.check(FakePage.class, kv, problems, true);
+        assertEquals(problems + "", 1, problems.allProblems().size());
+
+        // Set on the annotation
+        Map<String, Object> codecBad = new MapBuilder().put("name", " ").put("count", "-1")
+                .put("flag", "maybe").build();
+        problems = new Problems();
+        checker.check(JsonCodecPage.class, KeysValues.ofMap(codecBad), problems);
+        assertEquals(problems + "", 1, problems.allProblems().size());
+        problems = new Problems();
+        checker.check(JsonCodecPage.class, KeysValues.ofMap(codecBad), problems, false);
+        assertEquals(problems + "", 3, problems.allProblems().size());
+
+        JsonCodecPageParams params = new ObjectMapper().readValue("{\"name\":\" \",\"count\":-1}",
+                JsonCodecPageParams.class);
+        problems = params.validate(deps.getInjector(), new Problems());
+        assertEquals(problems + "", 1, problems.allProblems().size());
+    }
+}
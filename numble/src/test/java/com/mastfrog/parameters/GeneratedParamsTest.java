@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mastfrog.util.collections.MapBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for the constructors, tryCreate() and JSON codecs generated for
+ * Params classes.
+ *
+ * @author Tim Boudreau
+ */
+public class GeneratedParamsTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTryCreate() {
+        Map<String, Object> map = new MapBuilder()
+                .put("requiredInt", "-23")
+                .put("requiredNonNeg", "42")
+                .put("jthing", "java")
+                .build();
+        Problems problems = new Problems();
+        FakePageParams created = FakePageParams.tryCreate(KeysValues.ofMap(map), problems);
+        assertFalse(problems + "", problems.hasFatal());
+        assertNotNull(created);
+        assertEquals(-23, created.getRequiredInt());
+        assertEquals(42, created.getRequiredNonNeg());
+        assertEquals(5, created.getDefaultInt());
+        assertEquals("Go away", created.getNothing());
+        assertFalse(created.getRequiredBool());
+        assertEquals(23D, created.getRequiredNumber(), 0.0001D);
+        assertEquals("java", created.getJthing().get());
+        assertFalse(created.getOptionalSomething().isPresent());
+        assertEquals(new FakePageParams(KeysValues.ofMap(map)), created);
+
+        map.put("requiredNonNeg", "-1");
+        map.put("requiredBool", "maybe");
+        map.remove("requiredInt");
+        problems = new Problems();
+        assertNull(FakePageParams.tryCreate(KeysValues.ofMap(map), problems));
+        assertEquals(problems + "", 3, problems.allProblems().size());
+    }
+
+    @Test
+    public void testGeneratedJsonCodec() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonCodecPageParams params = mapper.readValue("{\"name\":\"x\",\"count\":\"3\",\"since\":12,"
+                + "\"ratio\":null,\"flag\":false,\"extra\":\"stuff\"}", JsonCodecPageParams.class);
+        assertEquals("x", params.getName());
+        assertEquals(3, params.getCount());
+        assertEquals(Long.valueOf(12), params.getSince().get());
+        assertEquals(0.5D, params.getRatio(), 0D);
+        assertFalse(params.getFlag());
+        assertEquals("stuff", params.get("extra").get());
+
+        assertEquals(mapper.readValue(mapper.writeValueAsString(params.toMap()), Map.class),
+                mapper.readValue(params.toJSON(), Map.class));
+        assertEquals(params, mapper.readValue(mapper.writeValueAsString(params), JsonCodecPageParams.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        params.writeJson(out);
+        out.write('\n');
+        assertEquals(params.toJSON() + "\n", new String(out.toByteArray(), UTF_8));
+
+        JsonCodecPageParams sparse = mapper.readValue("{\"name\":\"y\",\"count\":0}", JsonCodecPageParams.class);
+        assertFalse(sparse.getSince().isPresent());
+        assertTrue(sparse.getFlag());
+        assertFalse(sparse.toJSON(), sparse.toJSON().contains("since"));
+
+        for (String bad : new String[]{"{\"name\":\"y\"}", "{\"count\":1}", "{\"name\":\"y\",\"count\":\"q\"}", "[]"}) {
+            try {
+                mapper.readValue(bad, JsonCodecPageParams.class);
+                fail("Should not have parsed " + bad);
+            } catch (JsonProcessingException ex) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void testSinglePassConstructor() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "x");
+        map.put("count", 3);
+        map.put("since", null);
+        map.put("ratio", 2L);
+        map.put("flag", Boolean.FALSE);
+        map.put("extra", 12);
+        JsonCodecPageParams params = new JsonCodecPageParams(KeysValues.ofMap(map));
+        assertEquals("x", params.getName());
+        assertEquals(3, params.getCount());
+        assertFalse(params.getSince().isPresent());
+        assertEquals(2D, params.getRatio(), 0D);
+        assertFalse(params.getFlag());
+        assertEquals("12", params.get("extra").get());
+        assertFalse(params.get("since").isPresent());
+
+        map.put("since", "-7");
+        map.remove("flag");
+        map.remove("ratio");
+        params = new JsonCodecPageParams(KeysValues.ofMap(map));
+        assertEquals(Long.valueOf(-7), params.getSince().get());
+        assertEquals(0.5D, params.getRatio(), 0D);
+        assertTrue(params.getFlag());
+
+        map.put("count", null);
+        try {
+            new JsonCodecPageParams(KeysValues.ofMap(map));
+            fail("Missing required number should throw");
+        } catch (NumberFormatException ex) {
+            // ok
+        }
+
+        map.put("count", 5L);
+        map.put("active", "TRUE");
+        map.put("verbose", true);
+        map.put("since", 4);
+        CompactPageParams compact = new CompactPageParams(KeysValues.ofMap(map));
+        assertTrue(compact.getActive());
+        assertEquals(5, compact.getCount().getAsInt());
+        assertEquals(4L, compact.getSince().getAsLong());
+        assertEquals(Optional.of(true), compact.getVerbose());
+        assertEquals(10, compact.getLimit());
+        assertEquals("12", compact.get("extra").get());
+        assertFalse(compact.get("flag").isPresent());
+    }
+}
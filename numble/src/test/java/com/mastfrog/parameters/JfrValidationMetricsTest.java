@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.parameters.jfr.JfrValidationMetrics;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.parameters.validation.RecordingValidationMetrics;
+import com.mastfrog.parameters.validation.ValidationMetrics;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import static com.mastfrog.parameters.TestFixtures.fakePage;
+import static org.junit.Assert.*;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for the Flight Recorder events of JfrValidationMetrics.
+ *
+ * @author Tim Boudreau
+ */
+public class JfrValidationMetricsTest {
+
+    @Test
+    public void testJfrEvents() throws IOException {
+        RecordingValidationMetrics counters = new RecordingValidationMetrics();
+        Path file = Files.createTempFile("numble", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("com.mastfrog.numble.Validation");
+                recording.enable("com.mastfrog.numble.SlowValidator").withThreshold(Duration.ZERO);
+                recording.enable("com.mastfrog.numble.Construction");
+                recording.start();
+                Dependencies measured = new Dependencies(new M(), binder -> binder.bind(ValidationMetrics.class)
+                        .toInstance(new JfrValidationMetrics(counters)));
+                try {
+                    Problems problems = new Problems();
+                    measured.getInstance(ParamChecker.class).check(FakePage.class, fakePage("q"), problems);
+                    assertTrue(problems.hasFatal());
+                    assertNotNull(new FakePageParams(fakePage("java")));
+                } finally {
+                    measured.shutdown();
+                }
+                recording.stop();
+                recording.dump(file);
+            }
+            assertEquals(1, counters.typeStats(FakePage.class).checks());
+            List<RecordedEvent> checks = new ArrayList<>();
+            List<RecordedEvent> slow = new ArrayList<>();
+            List<RecordedEvent> constructions = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (!FakePage.class.getName().equals(event.getClass("declaringType").getName())) {
+                    continue;
+                }
+                switch (event.getEventType().getName()) {
+                    case "com.mastfrog.numble.Validation":
+                        checks.add(event);
+                        break;
+                    case "com.mastfrog.numble.SlowValidator":
+                        slow.add(event);
+                        break;
+                    case "com.mastfrog.numble.Construction":
+                        constructions.add(event);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            assertEquals(checks.toString(), 1, checks.size());
+            assertFalse(checks.get(0).getBoolean("valid"));
+            // Begun before the check, so the event spans it
+            assertTrue(checks.get(0).getDuration().toNanos() > 0);
+            assertEquals(slow.toString(), 1, slow.size());
+            assertTrue(slow.get(0).getDuration().toNanos() > 0);
+            assertFalse(slow.get(0).getStartTime().isBefore(checks.get(0).getStartTime()));
+            assertFalse(slow.get(0).getEndTime().isAfter(checks.get(0).getEndTime()));
+            assertEquals("jthing", slow.get(0).getString("parameter"));
+            assertEquals(LongerThanTwo.class.getName() + ", " + StartsWithJValidator.class.getName(),
+                    slow.get(0).getString("validators"));
+            assertFalse(slow.get(0).getBoolean("valid"));
+            // FakePageParams is generated for FakePage
+            assertFalse(constructions.isEmpty());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        testJfrMetricsEnabledOnlyWhileRecording();
+    }
+
+    // Called from testJfrEvents, since tests run concurrently and whether
+    // JfrValidationMetrics is enabled depends on the recordings running
+    private void testJfrMetricsEnabledOnlyWhileRecording() throws IOException {
+        JfrValidationMetrics jfr = new JfrValidationMetrics();
+        assertFalse(jfr.isEnabled());
+        // Created before the recording starts, and still records to it
+        Dependencies measured = new Dependencies(new M(), binder -> binder.bind(ValidationMetrics.class)
+                .toInstance(jfr));
+        Path file = Files.createTempFile("numble", ".jfr");
+        try {
+            ParamChecker checker = measured.getInstance(ParamChecker.class);
+            KeysValues params = fakePage("java");
+            assertNull(FakePageParamsChecker.forInjector(measured.getInjector()).metrics());
+            try (Recording recording = new Recording()) {
+                recording.enable("com.mastfrog.numble.Validation");
+                recording.start();
+                assertTrue(jfr.isEnabled());
+                assertTrue(checker.isValid(FakePage.class, params));
+                assertSame(jfr, FakePageParamsChecker.forInjector(measured.getInjector()).metrics());
+                recording.stop();
+                recording.dump(file);
+            }
+            assertFalse(jfr.isEnabled());
+            long events = 0;
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if ("com.mastfrog.numble.Validation".equals(event.getEventType().getName())
+                        && FakePage.class.getName().equals(event.getClass("declaringType").getName())) {
+                    assertTrue(event.getBoolean("valid"));
+                    events++;
+                }
+            }
+            assertEquals(1, events);
+            assertTrue(new JfrValidationMetrics(new RecordingValidationMetrics()).isEnabled());
+        } finally {
+            measured.shutdown();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import com.mastfrog.util.collections.MapBuilder;
+import java.nio.CharBuffer;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for typed and CharSequence values in KeysValues, and their use by
+ * generated code and ParamChecker.
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class KeysValuesTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTypedValues(ParamChecker checker) {
+        Map<String, Object> map = new MapBuilder()
+                .put("requiredInt", -23)
+                .put("requiredNonNeg", 42L)
+                .put("requiredBool", Boolean.TRUE)
+                .put("requiredNumber", 7.5D)
+                .put("jthing", "java")
+                .build();
+        KeysValues kv = KeysValues.ofMap(map);
+        assertEquals(-23, kv.getInt("requiredInt"));
+        assertEquals(42L, kv.getLong("requiredNonNeg", 0L));
+        assertEquals(3, kv.getInt("missing", 3));
+        assertTrue(kv.getBoolean("requiredBool", false));
+        assertFalse(kv.has("missing"));
+        try {
+            kv.getInt("missing");
+            fail("Should have thrown");
+        } catch (NumberFormatException ex) {
+            // ok
+        }
+        FakePageParams params = new FakePageParams(kv);
+        assertEquals(-23, params.getRequiredInt());
+        assertEquals(42, params.getRequiredNonNeg());
+        assertTrue(params.getRequiredBool());
+        assertEquals(7.5D, params.getRequiredNumber(), 0D);
+
+        Problems problems = new Problems();
+        assertEquals(params, FakePageParams.tryCreate(kv, problems));
+        checker.check(FakePage.class, kv, problems);
+        assertFalse(problems + "", problems.hasFatal());
+
+        map.put("requiredNonNeg", -1);
+        map.put("requiredInt", 3.5D);
+        map.put("requiredBool", 1);
+        checker.check(FakePage.class, kv, problems);
+        assertEquals(problems + "", 3, problems.allProblems().size());
+        problems = new Problems();
+        assertNull(FakePageParams.tryCreate(kv, problems));
+        assertEquals(problems + "", 3, problems.allProblems().size());
+        assertEquals(Long.MAX_VALUE, KeysValues.ofMap(Collections.singletonMap("x", Long.MAX_VALUE)).getLong("x"));
+
+        map.put("requiredNonNeg", CharBuffer.wrap("x42x", 1, 3));
+        map.put("requiredInt", new StringBuilder("-2147483648"));
+        map.put("requiredBool", CharBuffer.wrap("TRUE"));
+        problems = new Problems();
+        params = FakePageParams.tryCreate(kv, problems);
+        assertFalse(problems + "", problems.hasFatal());
+        assertEquals(42, params.getRequiredNonNeg());
+        assertEquals(Integer.MIN_VALUE, params.getRequiredInt());
+        assertTrue(params.getRequiredBool());
+        checker.check(FakePage.class, kv, problems);
+        assertFalse(problems + "", problems.hasFatal());
+        assertEquals(Long.MIN_VALUE, TypeValidation.parseLong(CharBuffer.wrap(Long.toString(Long.MIN_VALUE))));
+        assertEquals(-7, TypeValidation.parseInt(CharBuffer.wrap("-7")));
+        TypeValidation.check(Types.NON_NEGATIVE_INTEGER, problems, "q", CharBuffer.wrap("-1"));
+        assertEquals(problems + "", 1, problems.allProblems().size());
+        assertFalse(TypeValidation.isTypedValue(Types.INTEGER, Long.MAX_VALUE));
+    }
+}
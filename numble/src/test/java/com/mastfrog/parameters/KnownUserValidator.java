@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.validators.AsyncValidator;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Stands in for a validator which looks something up remotely. Values
+ * starting with PAIRED only pass once two of them are being validated at
+ * the same time.
+ *
+ * @author Tim Boudreau
+ */
+public class KnownUserValidator implements AsyncValidator<String> {
+
+    static final String PAIRED = "paired-";
+    private static final CyclicBarrier PAIRS = new CyclicBarrier(2);
+
+    @Override
+    public void validate(Problems problems, String compName, String model) {
+        if (model.startsWith(PAIRED)) {
+            try {
+                PAIRS.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (BrokenBarrierException | TimeoutException ex) {
+                problems.append(compName + " was not validated concurrently");
+                return;
+            }
+        }
+        if (model.startsWith("nobody") || model.startsWith(PAIRED + "nobody")) {
+            problems.append("No such user for " + compName + ": " + model);
+        }
+    }
+
+    @Override
+    public Class<String> modelType() {
+        return String.class;
+    }
+}
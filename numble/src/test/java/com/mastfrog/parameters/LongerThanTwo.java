@@ -24,6 +24,7 @@
 
 package com.mastfrog.parameters;
 
+import com.mastfrog.parameters.validators.Stateless;
 import org.netbeans.validation.api.Problems;
 import org.netbeans.validation.api.Validator;
 
@@ -31,6 +32,7 @@ import org.netbeans.validation.api.Validator;
  *
  * @author Tim Boudreau
  */
+@Stateless
 public class LongerThanTwo implements Validator<String> {
 
     @Override
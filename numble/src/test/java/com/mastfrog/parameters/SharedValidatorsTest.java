@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.parameters.validators.SharedValidators;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import java.io.IOException;
+import java.util.Optional;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for the validators and generated checkers kept per injector.
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class SharedValidatorsTest {
+
+    @Test
+    public void testValidatorCaching(Dependencies deps) throws IOException {
+        FakePageParamsChecker checker = FakePageParamsChecker.forInjector(deps.getInjector());
+        assertSame(checker, FakePageParamsChecker.forInjector(deps.getInjector()));
+        assertSame(checker, deps.getInstance(FakePageParamsChecker.class));
+        SharedValidators shared = deps.getInstance(SharedValidators.class);
+        assertSame(shared.get(LongerThanTwo.class), shared.get(LongerThanTwo.class));
+        assertTrue(SharedValidators.isShared(LongerThanTwo.class));
+        assertFalse(SharedValidators.isShared(StartsWithJValidator.class));
+
+        FakePageParams params = new FakePageParams(5, Optional.of("x"), "Go away",
+                Optional.empty(), false, 1, 1, 1D);
+        Problems problems = params.validate(deps.getInjector(), new Problems());
+        assertEquals(problems + "", 2, problems.allProblems().size());
+
+        Dependencies other = new Dependencies(new M());
+        try {
+            FakePageParamsChecker otherChecker = FakePageParamsChecker.forInjector(other.getInjector());
+            assertNotSame(checker, otherChecker);
+            assertSame(otherChecker, FakePageParamsChecker.forInjector(other.getInjector()));
+            // Alternating injectors get their own instances
+            assertSame(checker, FakePageParamsChecker.forInjector(deps.getInjector()));
+            assertSame(otherChecker, FakePageParamsChecker.forInjector(other.getInjector()));
+            assertNotSame(shared, other.getInstance(SharedValidators.class));
+            assertNotSame(shared.get(LongerThanTwo.class), other.getInstance(SharedValidators.class)
+                    .get(LongerThanTwo.class));
+        } finally {
+            other.shutdown();
+        }
+    }
+}
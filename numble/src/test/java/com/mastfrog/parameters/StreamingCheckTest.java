@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.parameters.validation.StreamingCheck;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import com.mastfrog.util.collections.MapBuilder;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for StreamingCheck.
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class StreamingCheckTest {
+
+    @Test
+    public void testStreamingCheck(ParamChecker checker) {
+        Problems problems = new Problems();
+        StreamingCheck check = checker.startCheck(FakePage.class, problems);
+        check.accept("requiredInt", "23");
+        check.accept("requiredNonNeg", "5");
+        check.accept("jthing", "java");
+        check.accept("optionalSomething", null);
+        assertFalse(check.finish().hasFatal());
+
+        Map<String, Object> bad = new MapBuilder().put("requiredInt", "x").put("jthing", "js")
+                .put("bogus", "1").build();
+        Problems fromMap = new Problems();
+        checker.check(FakePage.class, KeysValues.ofMap(bad), fromMap);
+        problems = new Problems();
+        check = checker.startCheck(FakePage.class, problems);
+        for (Map.Entry<String, Object> e : bad.entrySet()) {
+            check.accept(e.getKey(), e.getValue().toString());
+        }
+        check.acceptStructured("requiredNonNeg");
+        check.finish();
+        assertTrue(problems.hasFatal());
+        assertEquals(fromMap.allProblems().size(), problems.allProblems().size());
+        assertTrue(problems.allProblems().toString(), problems.allProblems().toString()
+                .contains("requiredNonNeg must be a string, number or boolean"));
+
+        // Rejecting the whole input reports only that, not missing keys
+        problems = checker.startCheck(FakePage.class, new Problems()).reject("Not an object");
+        assertEquals(problems + "", 1, problems.allProblems().size());
+        assertEquals("Not an object", problems.getLeadProblem().getMessage());
+    }
+}
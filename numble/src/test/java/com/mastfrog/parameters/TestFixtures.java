@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.util.collections.MapBuilder;
+import java.util.HashSet;
+import java.util.Set;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Helpers shared by the tests in this package.
+ *
+ * @author Tim Boudreau
+ */
+final class TestFixtures {
+
+    private TestFixtures() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Parameters for FakePage which pass everything but the validators on
+     * jthing.
+     */
+    static KeysValues fakePage(String jthing) {
+        return KeysValues.ofMap(new MapBuilder().put("requiredInt", 1)
+                .put("requiredNonNeg", 1).put("jthing", jthing).build());
+    }
+
+    static Set<String> messages(Problems problems) {
+        Set<String> result = new HashSet<>();
+        for (org.netbeans.validation.api.Problem p : problems) {
+            result.add(p.getMessage());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for the integer, boolean and double scanners in TypeValidation.
+ *
+ * @author Tim Boudreau
+ */
+public class TypeValidationTest {
+
+    @Test
+    public void testTypeScanners() {
+        assertTrue(TypeValidation.isInteger("2147483647"));
+        assertTrue(TypeValidation.isInteger("-2147483648"));
+        assertFalse(TypeValidation.isInteger("2147483648"));
+        assertFalse(TypeValidation.isInteger("-2147483649"));
+        assertTrue(TypeValidation.isLong("9223372036854775807"));
+        assertTrue(TypeValidation.isLong("-9223372036854775808"));
+        assertFalse(TypeValidation.isLong("9223372036854775808"));
+        assertFalse(TypeValidation.isLong("-9223372036854775809"));
+        assertTrue(TypeValidation.isNonNegativeInteger("0"));
+        assertFalse(TypeValidation.isNonNegativeInteger("-0"));
+        assertFalse(TypeValidation.isNonNegativeInteger("-1"));
+        assertTrue(TypeValidation.isNonNegativeLong("3000000000"));
+        assertFalse(TypeValidation.isNonNegativeInteger("3000000000"));
+        for (String bad : new String[]{"", "-", "1-", "--1", "+1", "1.0", "1 ", "0x10"}) {
+            assertFalse(bad, TypeValidation.isInteger(bad));
+            assertFalse(bad, TypeValidation.isLong(bad));
+        }
+        assertTrue(TypeValidation.isBoolean("TRUE"));
+        assertTrue(TypeValidation.isBoolean("false"));
+        assertFalse(TypeValidation.isBoolean("yes"));
+
+        Problems problems = new Problems();
+        TypeValidation.validator(Types.INTEGER).validate(problems, "x", "99999999999");
+        assertTrue(problems.hasFatal());
+        problems = new Problems();
+        TypeValidation.validator(Types.NON_NEGATIVE_LONG).validate(problems, "x", "99999999999");
+        assertFalse(problems.hasFatal());
+    }
+
+    @Test
+    public void testDoubleParsing() {
+        String[] exact = {"0", "-0", "0.0", "1", "-1", "1.5", ".5", "5.", "37.774929", "-122.419416",
+            "19.99", "1e10", "1E-10", "1e+22", "1e23", "9007199254740993", "123456789012345678",
+            "9999999999999999999", "12345678901234567890123", "0.000000000000000000000000000001",
+            "1.7976931348623157e308", "1.7976931348623159e308", "2.2250738585072014E-308",
+            "2.2250738585072011e-308", "4.9e-324", "2.4703282292062327e-324",
+            "2.4703282292062328e-324", "1e-400", "1e400", "7.038531e-26", "3.0540412E5"};
+        for (String s : exact) {
+            assertEquals(s, Double.doubleToRawLongBits(Double.parseDouble(s)),
+                    Double.doubleToRawLongBits(TypeValidation.parseDouble(s)));
+        }
+        java.util.Random rnd = new java.util.Random(5);
+        for (int i = 0; i < 20000; i++) {
+            double d = Double.longBitsToDouble(rnd.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                continue;
+            }
+            String s = Double.toString(d);
+            assertEquals(s, d, TypeValidation.parseDouble(s), 0);
+            StringBuilder sb = new StringBuilder();
+            int digits = 1 + rnd.nextInt(20);
+            for (int j = 0; j < digits; j++) {
+                sb.append((char) ('0' + rnd.nextInt(10)));
+            }
+            sb.insert(rnd.nextInt(digits + 1), '.');
+            sb.append('e').append(rnd.nextInt(700) - 350);
+            s = sb.toString();
+            assertEquals(s, Double.doubleToRawLongBits(Double.parseDouble(s)),
+                    Double.doubleToRawLongBits(TypeValidation.parseDouble(s)));
+        }
+        for (String bad : new String[]{"", "-", ".", "-.", "1.2.3", "1e", "1e+", "e5", "+1", "1 ", "NaN",
+            "Infinity", "0x1p3", "1d", "--1", "1e5.5"}) {
+            assertFalse(bad, TypeValidation.isDouble(bad));
+            assertTrue(bad, Double.isNaN(TypeValidation.scanDouble(bad)));
+        }
+        assertFalse(TypeValidation.isDouble("1e400"));
+        assertTrue(TypeValidation.isDouble("-1.5E-7"));
+    }
+}
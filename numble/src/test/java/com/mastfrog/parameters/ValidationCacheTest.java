@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.parameters.validation.ValidationCache;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import com.mastfrog.util.collections.MapBuilder;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static com.mastfrog.parameters.TestFixtures.messages;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for ValidationCache.
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class ValidationCacheTest {
+
+    @Test
+    public void testValidationCache(ParamChecker checker) {
+        assertNull(checker.validationCache(CachedPage.class, "count"));
+        assertNull(checker.validationCache(FakePage.class, "jthing"));
+        ValidationCache cache = checker.validationCache(CachedPage.class, "name");
+        assertNotNull(cache);
+        long hits = cache.hits();
+        long misses = cache.misses();
+        for (int i = 0; i < 3; i++) {
+            Problems problems = new Problems();
+            checker.check(CachedPage.class, cachedPage("javaCached"), problems);
+            assertFalse(problems + "", problems.hasFatal());
+            problems = new Problems();
+            checker.check(CachedPage.class, cachedPage("q"), problems);
+            assertEquals(problems + "", 2, problems.allProblems().size());
+            assertTrue(problems + "", messages(problems).contains("name must start with J or j"));
+        }
+        assertEquals(2, cache.misses() - misses);
+        assertEquals(4, cache.hits() - hits);
+
+        AtomicInteger computed = new AtomicInteger();
+        ValidationCache small = new ValidationCache("k", 100, (value, problems) -> {
+            computed.incrementAndGet();
+            if (value.startsWith("bad")) {
+                problems.append("k is bad");
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            small.validate((i % 2 == 0 ? "bad" : "good") + i, new Problems());
+        }
+        assertTrue(small.toString(), small.size() <= 100 && small.size() > 0);
+        assertEquals(1000, small.misses());
+        Problems problems = new Problems();
+        small.validate("bad1", problems);
+        small.validate("bad1", problems);
+        assertEquals(2, problems.allProblems().size());
+        assertEquals(1001, computed.get());
+        assertEquals(1, small.hits());
+    }
+
+    private static KeysValues cachedPage(String name) {
+        return KeysValues.ofMap(new MapBuilder().put("name", name).build());
+    }
+}
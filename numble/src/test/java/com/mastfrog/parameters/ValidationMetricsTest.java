@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.giulius.Dependencies;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.parameters.validation.FailureKind;
+import com.mastfrog.parameters.validation.LatencyHistogram;
+import com.mastfrog.parameters.validation.RecordingValidationMetrics;
+import com.mastfrog.parameters.validation.ValidationMetrics;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import com.mastfrog.util.collections.MapBuilder;
+import java.io.IOException;
+import java.util.Optional;
+import org.junit.Test;
+import static com.mastfrog.parameters.TestFixtures.fakePage;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for ValidationMetrics, RecordingValidationMetrics and
+ * LatencyHistogram.
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class ValidationMetricsTest {
+
+    @Test
+    public void testValidationMetrics(Dependencies deps) throws IOException {
+        assertNull(FakePageParamsChecker.forInjector(deps.getInjector()).metrics());
+        Dependencies measured = new Dependencies(new M(), binder
+                -> binder.bind(ValidationMetrics.class).to(RecordingValidationMetrics.class));
+        try {
+            RecordingValidationMetrics metrics = measured.getInstance(RecordingValidationMetrics.class);
+            ParamChecker checker = measured.getInstance(ParamChecker.class);
+            Problems problems = new Problems();
+            checker.check(FakePage.class, fakePage("java"), problems);
+            assertFalse(problems + "", problems.hasFatal());
+            checker.check(FakePage.class, KeysValues.ofMap(new MapBuilder().put("requiredNonNeg", "-1")
+                    .put("jthing", "q").put("bogus", "x").build()), problems);
+            assertTrue(problems.hasFatal());
+
+            RecordingValidationMetrics.Stats type = metrics.typeStats(FakePage.class);
+            assertEquals(type.toString(), 2, type.checks());
+            assertEquals(type.toString(), 1, type.rejected());
+            assertEquals(type.toString(), 1, type.failures(FailureKind.MISSING));
+            assertEquals(type.toString(), 1, type.failures(FailureKind.INVALID_TYPE));
+            assertEquals(type.toString(), 1, type.failures(FailureKind.CONSTRAINT));
+            assertEquals(type.toString(), 1, type.failures(FailureKind.UNKNOWN));
+            assertEquals(2, type.latency().count());
+
+            RecordingValidationMetrics.Stats jthing = metrics.parameterStats(FakePage.class, "jthing");
+            assertEquals(jthing.toString(), 2, jthing.checks());
+            assertEquals(jthing.toString(), 1, jthing.rejected());
+            assertEquals(jthing.toString(), 1, jthing.failures());
+            assertEquals(jthing.toString(), 1, jthing.failures(FailureKind.CONSTRAINT));
+            assertEquals(1, metrics.parameterStats(FakePage.class, "requiredInt").failures(FailureKind.MISSING));
+            assertEquals(0, metrics.parameterStats(FakePage.class, "requiredInt").checks());
+
+            // Generated validate() records to the same metrics
+            FakePageParams params = new FakePageParams(5, Optional.of("q"), "Go away",
+                    Optional.empty(), false, 1, 1, 1D);
+            assertTrue(params.validate(measured.getInjector(), new Problems()).hasFatal());
+            assertEquals(3, type.checks());
+            assertEquals(3, jthing.checks());
+            assertEquals(2, jthing.failures(FailureKind.CONSTRAINT));
+            assertTrue(metrics.toString(), metrics.toString().contains("jthing: checks=3 rejected=2 constraint=2"));
+
+            // Passing into Problems which already has failures still counts
+            // as a passing check
+            checker.check(FakePage.class, fakePage("java"), problems);
+            assertEquals(4, type.checks());
+            assertEquals(2, type.rejected());
+            assertEquals(4, jthing.checks());
+            assertEquals(2, jthing.rejected());
+
+            // A fail-fast rejection by a constraint runs the validators once,
+            // and its message comes from that run
+            Problems first = new Problems();
+            checker.check(FakePage.class, fakePage("q"), first, true);
+            assertEquals(first + "", 1, first.allProblems().size());
+            assertEquals(5, jthing.checks());
+            assertEquals(first.getLeadProblem().getMessage(),
+                    checker.validate(FakePage.class, fakePage("q")).message(0));
+            assertEquals(6, jthing.checks());
+        } finally {
+            measured.shutdown();
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(500, histogram.mean());
+        assertTrue(histogram.toString(), histogram.percentile(50) >= 500 && histogram.percentile(50) <= 563);
+        assertTrue(histogram.toString(), histogram.percentile(99) >= 990 && histogram.percentile(99) <= 1114);
+        assertTrue(histogram.toString(), histogram.max() >= 1000 && histogram.max() <= 1125);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.max());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 Tim Boudreau.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.mastfrog.parameters;
+
+import com.mastfrog.parameters.ParamCheckerTest.M;
+import com.mastfrog.parameters.validation.ParamChecker;
+import com.mastfrog.parameters.validation.FailureKind;
+import com.mastfrog.parameters.validation.ValidationResult;
+import com.mastfrog.giulius.tests.GuiceRunner;
+import com.mastfrog.giulius.tests.TestWith;
+import com.mastfrog.util.collections.MapBuilder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import static com.mastfrog.parameters.TestFixtures.messages;
+import static org.junit.Assert.*;
+import org.junit.runner.RunWith;
+import org.netbeans.validation.api.Problems;
+
+/**
+ * Tests for ValidationResult and checks against a ValidationSink.
+ *
+ * @author Tim Boudreau
+ */
+@RunWith(GuiceRunner.class)
+@TestWith(M.class)
+public class ValidationResultTest {
+
+    @Test
+    public void testValidationResult(ParamChecker checker) {
+        Map<String, Object> good = new MapBuilder().put("requiredInt", 23).put("requiredNonNeg", "5")
+                .put("cachebuster", "x").build();
+        assertTrue(checker.isValid(FakePage.class, KeysValues.ofMap(good)));
+        assertTrue(checker.validate(FakePage.class, KeysValues.ofMap(good)).isValid());
+
+        Map<String, Object> bad = new MapBuilder().put("requiredInt", "x").put("jthing", "x")
+                .put("nothing", "5 things").put("bogus", "1").build();
+        KeysValues kv = KeysValues.ofMap(bad);
+        assertFalse(checker.isValid(FakePage.class, kv));
+        ValidationResult result = checker.validate(FakePage.class, kv);
+        assertFalse(result.isValid());
+        assertEquals(result.toString(), 5, result.size());
+        Map<String, FailureKind> kinds = new HashMap<>();
+        for (int i = 0; i < result.size(); i++) {
+            kinds.put(result.key(i), result.kind(i));
+        }
+        assertEquals(FailureKind.INVALID_TYPE, kinds.get("requiredInt"));
+        assertEquals(FailureKind.MISSING, kinds.get("requiredNonNeg"));
+        assertEquals(FailureKind.CONSTRAINT, kinds.get("jthing"));
+        assertEquals(FailureKind.CONSTRAINT, kinds.get("nothing"));
+        assertEquals(FailureKind.UNKNOWN, kinds.get("bogus"));
+        for (int i = 0; i < result.size(); i++) {
+            if (result.kind(i) == FailureKind.MISSING) {
+                assertNull(result.value(i));
+                assertEquals(3, result.index(i));
+                assertEquals("Missing requiredNonNeg", result.message(i));
+            } else if (result.kind(i) == FailureKind.INVALID_TYPE) {
+                assertEquals("x", result.value(i));
+                assertEquals(1, result.index(i));
+            }
+        }
+
+        assertSameMessages(checker, FakePage.class, kv);
+        assertSameMessages(checker, FakePage.class, KeysValues.ofMap(new MapBuilder()
+                .put("requiredInt", 1.5D).put("requiredNonNeg", -1).put("requiredBool", "maybe")
+                .put("optionalSomething", " ").put("requiredNumber", "NaN").build()));
+        assertSameMessages(checker, FakePage.class, KeysValues.ofMap(new MapBuilder()
+                .put("requiredInt", "").put("jthing", "jj").put("bogus", "1").put("other", "2").build()));
+        // Constraints and validators do not run on a value of the wrong type
+        assertSameMessages(checker, AsyncPage.class, KeysValues.ofMap(new MapBuilder()
+                .put("owner", "  ").put("count", "x").build()));
+        Problems blank = new Problems();
+        checker.check(AsyncPage.class, KeysValues.ofMap(new MapBuilder().put("owner", " ").build()), blank);
+        assertEquals(blank + "", 1, blank.allProblems().size());
+
+        List<FailureKind> seen = new ArrayList<>();
+        assertFalse(checker.check(FakePage.class, kv, (index, kind, value) -> {
+            seen.add(kind);
+            return false;
+        }));
+        assertEquals(1, seen.size());
+    }
+
+    private static void assertSameMessages(ParamChecker checker, Class<?> type, KeysValues params) {
+        Problems expected = new Problems();
+        checker.check(type, params, expected);
+        assertTrue(expected.hasFatal());
+        ValidationResult result = checker.validate(type, params);
+        assertEquals(messages(expected), messages(result.appendTo(new Problems())));
+        // Unknown keys are reported together by appendTo(), one by one here
+        Set<String> each = new HashSet<>();
+        for (int i = 0; i < result.size(); i++) {
+            if (result.kind(i) != FailureKind.UNKNOWN) {
+                each.add(result.message(i));
+            }
+        }
+        assertTrue(each + " vs " + messages(expected), messages(expected).containsAll(each));
+    }
+}